@@ -0,0 +1,94 @@
+package benchmark;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import com.google.gson.Gson;
+import io.javalin.websocket.WsMessageContext;
+import org.eclipse.jetty.websocket.api.RemoteEndpoint;
+import org.eclipse.jetty.websocket.api.Session;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import service.ConnectionManager;
+import websocket.messages.LoadGameMessage;
+import websocket.messages.MoveDeltaMessage;
+import websocket.messages.NotificationMessage;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ConnectionManager fan-out to many sessions. The sessions are stand-ins for Jetty's
+ * Session whose remote endpoint consumes each outgoing text in place of writing it to
+ * a socket.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BroadcastBenchmark {
+
+    @Param({"2", "50"})
+    public int sessions;
+
+    // whether the clients opted in to MOVE_DELTA messages
+    @Param({"false", "true"})
+    public boolean deltas;
+
+    private final Gson gson = new Gson();
+    private ConnectionManager manager;
+    private LoadGameMessage load;
+    private MoveDeltaMessage delta;
+    private NotificationMessage note;
+    private static Blackhole sink;
+
+    @Setup
+    public void setup(Blackhole blackhole) {
+        sink = blackhole;
+        manager = new ConnectionManager();
+        for (int i = 0; i < sessions; i++) {
+            manager.addPlayer("user" + i, new WsMessageContext("session" + i, fakeSession(), ""), deltas);
+        }
+        ChessGame game = new ChessGame();
+        ChessMove move = new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null);
+        try {
+            game.makeMove(move);
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+        load = new LoadGameMessage(game);
+        delta = MoveDeltaMessage.of(game, move);
+        note = new NotificationMessage("user0 moved e2 to e4");
+    }
+
+    private static Session fakeSession() {
+        RemoteEndpoint remote = (RemoteEndpoint) Proxy.newProxyInstance(
+                BroadcastBenchmark.class.getClassLoader(), new Class<?>[]{RemoteEndpoint.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("sendString")) {
+                        sink.consume(args[0]);
+                    }
+                    return null;
+                });
+        return (Session) Proxy.newProxyInstance(
+                BroadcastBenchmark.class.getClassLoader(), new Class<?>[]{Session.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getRemote" -> remote;
+                    case "isOpen" -> true;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> null;
+                });
+    }
+
+    /**
+     * The broadcasts WebSocketGameService.makeMove sends after a move.
+     */
+    @Benchmark
+    public void broadcastMove() {
+        manager.broadcastMove(load, delta, gson);
+        manager.broadcastToOthers("user0", note, gson);
+    }
+}
@@ -0,0 +1,99 @@
+package benchmark;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import chess.Perft;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Move generation and game rules from the shared module: the calls the server makes for
+ * every MAKE_MOVE command.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EngineBenchmark {
+
+    // A quiet middlegame position with plenty of moves for both sides
+    private static final String MIDDLEGAME =
+            "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10";
+
+    // 1. e4 e5 2. Qh5 Nc6 3. Bc4 Nf6 4. Qxf7#
+    private static final ChessMove[] SCHOLARS_MATE = {
+            move(2, 5, 4, 5), move(7, 5, 5, 5),
+            move(1, 4, 5, 8), move(8, 2, 6, 3),
+            move(1, 6, 4, 3), move(8, 7, 6, 6),
+            move(5, 8, 7, 6)
+    };
+
+    private ChessGame middlegame;
+    private ChessPiece queen;
+    private ChessPosition queenPosition;
+    private ChessPosition knightPosition;
+
+    private static ChessMove move(int fromRow, int fromCol, int toRow, int toCol) {
+        return new ChessMove(new ChessPosition(fromRow, fromCol), new ChessPosition(toRow, toCol), null);
+    }
+
+    @Setup
+    public void setup() {
+        middlegame = ChessGame.fromFen(MIDDLEGAME);
+        queenPosition = new ChessPosition(2, 5);
+        queen = middlegame.getBoard().getPiece(queenPosition);
+        knightPosition = new ChessPosition(3, 6);
+    }
+
+    @Benchmark
+    public Collection<ChessMove> pieceMovesQueen() {
+        return queen.pieceMoves(middlegame.getBoard(), queenPosition);
+    }
+
+    @Benchmark
+    public Collection<ChessMove> validMovesKnight() {
+        return middlegame.validMoves(knightPosition);
+    }
+
+    @Benchmark
+    public void validMovesAllPieces(Blackhole blackhole) {
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                blackhole.consume(middlegame.validMoves(new ChessPosition(row, col)));
+            }
+        }
+    }
+
+    /**
+     * Plays a seven-ply game from a fresh board, checking for mate after every move the way
+     * WebSocketGameService does.
+     */
+    @Benchmark
+    public boolean makeMoveAndCheckmate() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        boolean mate = false;
+        for (ChessMove move : SCHOLARS_MATE) {
+            game.makeMove(move);
+            mate = game.isInCheckmate(game.getTeamTurn());
+        }
+        return mate;
+    }
+
+    @Benchmark
+    public boolean isInCheckmate() {
+        return middlegame.isInCheckmate(ChessGame.TeamColor.BLACK);
+    }
+
+    @Benchmark
+    public long perftDepth3() {
+        return new Perft(middlegame).count(3);
+    }
+}
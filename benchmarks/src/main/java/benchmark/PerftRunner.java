@@ -0,0 +1,40 @@
+package benchmark;
+
+import chess.ChessGame;
+import chess.Perft;
+
+/**
+ * Prints perft node counts and nodes per second for every reference position, and exits
+ * with status 1 if any count differs from the published one.
+ * <p>
+ * Run with {@code java -cp benchmarks/target/benchmarks.jar benchmark.PerftRunner [depth]}.
+ */
+public class PerftRunner {
+
+    public static void main(String[] args) {
+        int maxDepth = args.length > 0 ? Integer.parseInt(args[0]) : Integer.MAX_VALUE;
+        boolean allMatched = true;
+
+        for (Perft.Reference reference : Perft.REFERENCES) {
+            System.out.println(reference.name() + ": " + reference.fen());
+            Perft perft = new Perft(ChessGame.fromFen(reference.fen()));
+            int depths = Math.min(maxDepth, reference.expected().length);
+
+            for (int depth = 1; depth <= depths; depth++) {
+                long start = System.nanoTime();
+                long nodes = perft.count(depth);
+                long elapsed = Math.max(System.nanoTime() - start, 1);
+
+                long expected = reference.expected()[depth - 1];
+                boolean matched = nodes == expected;
+                allMatched &= matched;
+                System.out.printf("  depth %d: %,12d nodes %s %,14.0f nodes/s%n", depth, nodes,
+                        matched ? "ok      " : "EXPECTED " + expected, nodes * 1e9 / elapsed);
+            }
+        }
+
+        if (!allMatched) {
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package benchmark;
+
+import chess.ChessGame;
+import chess.GameStateCodec;
+import com.google.gson.Gson;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gson round trips of ChessGame, as done by every LOAD_GAME message, compared with the
+ * binary GameStateCodec used for the game_state_bin column.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SerializationBenchmark {
+
+    private final Gson gson = new Gson();
+    private ChessGame game;
+    private String json;
+    private byte[] encoded;
+
+    @Setup
+    public void setup() {
+        game = ChessGame.fromFen("r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10");
+        json = gson.toJson(game);
+        encoded = GameStateCodec.encode(game);
+    }
+
+    @Benchmark
+    public String gsonSerialize() {
+        return gson.toJson(game);
+    }
+
+    @Benchmark
+    public ChessGame gsonDeserialize() {
+        return gson.fromJson(json, ChessGame.class);
+    }
+
+    @Benchmark
+    public ChessGame gsonRoundTrip() {
+        return gson.fromJson(gson.toJson(game), ChessGame.class);
+    }
+
+    @Benchmark
+    public byte[] codecEncode() {
+        return GameStateCodec.encode(game);
+    }
+
+    @Benchmark
+    public ChessGame codecDecode() {
+        return GameStateCodec.decode(encoded);
+    }
+}
@@ -321,6 +321,16 @@ public class ChessClient implements ServerMessageObserver {
                     renderer.drawBoard(currentGame.getBoard(), perspective);
                 }
             }
+            case MOVE_DELTA -> {
+                var delta = (websocket.messages.MoveDeltaMessage) message;
+                if (currentGame != null && delta.applyTo(currentGame)) {
+                    ChessGame.TeamColor perspective =
+                            (currentColor != null ? currentColor : ChessGame.TeamColor.WHITE);
+                    renderer.drawBoard(currentGame.getBoard(), perspective);
+                } else {
+                    requestResync();
+                }
+            }
             case NOTIFICATION -> {
                 var note = (websocket.messages.NotificationMessage) message;
                 System.out.println("\n[Notification] " + note.getMessage());
@@ -331,6 +341,17 @@ public class ChessClient implements ServerMessageObserver {
             }
         }
     }
+    private void requestResync() {
+        if (currentGameId == null || ws == null) {
+            return;
+        }
+        try {
+            ws.sendResync(authToken, currentGameId);
+        } catch (Exception e) {
+            System.out.println("\n[Error] " + e.getMessage());
+        }
+    }
+
     private String inGameHelp() {
         return """
             Gameplay commands:
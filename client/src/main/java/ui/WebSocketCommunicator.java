@@ -7,6 +7,7 @@ import java.net.URI;
 import websocket.commands.*;
 import websocket.messages.ErrorMessage;
 import websocket.messages.LoadGameMessage;
+import websocket.messages.MoveDeltaMessage;
 import websocket.messages.NotificationMessage;
 import websocket.messages.ServerMessage;
 
@@ -32,6 +33,10 @@ public class WebSocketCommunicator {
                 LoadGameMessage msg = gson.fromJson(json, LoadGameMessage.class);
                 observer.notify(msg);
             }
+            case MOVE_DELTA -> {
+                MoveDeltaMessage msg = gson.fromJson(json, MoveDeltaMessage.class);
+                observer.notify(msg);
+            }
             case NOTIFICATION -> {
                 NotificationMessage msg = gson.fromJson(json, NotificationMessage.class);
                 observer.notify(msg);
@@ -45,7 +50,7 @@ public class WebSocketCommunicator {
 
 
     public void sendConnect(String authToken, int gameId) throws Exception {
-        UserGameCommand cmd = new ConnectCommand(authToken, gameId);
+        UserGameCommand cmd = new ConnectCommand(authToken, gameId, true);
         session.getBasicRemote().sendText(gson.toJson(cmd));
     }
 
@@ -64,6 +69,11 @@ public class WebSocketCommunicator {
         session.getBasicRemote().sendText(gson.toJson(cmd));
     }
 
+    public void sendResync(String authToken, int gameId) throws Exception {
+        UserGameCommand cmd = new ResyncCommand(authToken, gameId);
+        session.getBasicRemote().sendText(gson.toJson(cmd));
+    }
+
     public void close() throws Exception {
         if (session != null) {
             session.close();
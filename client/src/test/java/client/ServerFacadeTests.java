@@ -1,6 +1,7 @@
 package client;
 
 import chess.ChessGame;
+import chess.model.request.GameListRequest;
 import chess.model.request.GameRequest;
 import chess.model.request.JoinGameRequest;
 import chess.model.request.RegisterRequest;
@@ -12,6 +13,7 @@ import chess.server.ServerFacade;
 import org.junit.jupiter.api.*;
 import server.Server;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -249,6 +251,72 @@ public class ServerFacadeTests {
         });
     }
 
+    @Test
+    public void testListGamesFollowsPages() throws Exception {
+        facade.clear();
+        String authToken = facade.register(new RegisterRequest("pager", "password123", "pager@example.com"))
+                .getAuthToken();
+
+        // more than the server's default page of 100, so the listing spans pages
+        int count = 130;
+        for (int i = 0; i < count; i++) {
+            facade.createGame(new GameRequest("Game" + i), authToken);
+        }
+
+        GameListResult listResult = facade.listGames(authToken);
+        assertTrue(listResult.isSuccess());
+        assertEquals(count, listResult.size(), "Every game should be listed, not just the first page");
+        assertEquals("Game0", listResult.getGames().get(0).getGameName());
+        assertEquals("Game" + (count - 1), listResult.getGames().get(count - 1).getGameName());
+        assertNull(listResult.getNextCursor());
+    }
+
+    @Test
+    public void testListGamesPagesAndFilters() throws Exception {
+        facade.clear();
+        String authToken = facade.register(new RegisterRequest("filter", "password123", "filter@example.com"))
+                .getAuthToken();
+
+        GameListResult empty = facade.listGames(authToken, new GameListRequest());
+        assertTrue(empty.isSuccess());
+        assertEquals(List.of(), empty.getGames(), "An empty page should still list its games");
+        assertNull(empty.getNextCursor());
+
+        int joined = 0;
+        for (int i = 0; i < 5; i++) {
+            int gameID = facade.createGame(new GameRequest("Game" + i), authToken).getGameID();
+            if (i == 2) {
+                joined = gameID;
+            }
+        }
+        facade.joinGame(authToken, new JoinGameRequest(ChessGame.TeamColor.WHITE, joined));
+
+        GameListRequest mine = new GameListRequest();
+        mine.setPlayer("filter");
+        GameListResult mineResult = facade.listGames(authToken, mine);
+        assertEquals(1, mineResult.size());
+        assertEquals(joined, mineResult.getGames().get(0).getGameId());
+        assertEquals("filter", mineResult.getGames().get(0).getWhiteUsername());
+
+        GameListRequest full = new GameListRequest();
+        full.setOpenSeats(false);
+        assertEquals(0, facade.listGames(authToken, full).size(), "No game has both colors taken");
+        GameListRequest finished = new GameListRequest();
+        finished.setStatus(GameListRequest.Status.FINISHED);
+        assertEquals(0, facade.listGames(authToken, finished).size());
+        finished.setStatus(GameListRequest.Status.ACTIVE);
+        assertEquals(5, facade.listGames(authToken, finished).size());
+
+        GameListRequest page = new GameListRequest(null, 2);
+        List<Integer> sizes = new ArrayList<>();
+        do {
+            GameListResult result = facade.listGames(authToken, page);
+            sizes.add(result.size());
+            page.setCursor(result.getNextCursor());
+        } while (page.getCursor() != null);
+        assertEquals(List.of(2, 2, 1), sizes);
+    }
+
     @Test
     public void testListGamesUnauthorized() throws ResponseException {
         facade.clear();
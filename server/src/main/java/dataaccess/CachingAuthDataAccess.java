@@ -0,0 +1,174 @@
+package dataaccess;
+
+import chess.model.request.RegisterRequest;
+import chess.model.request.SessionRequest;
+import chess.model.result.RegisterResult;
+import chess.model.result.SessionResult;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Remembers which user each auth token belongs to, so most auth checks are answered
+ * from memory instead of the wrapped DataAccess.
+ * <p>
+ * Tokens are cached when they are issued by registerUser or loginUser and when a lookup
+ * finds them. Unknown tokens are never cached. invalidateToken and clear drop entries
+ * straight away; the time to live bounds how long a token deleted some other way, such
+ * as by another server sharing the database, keeps working here. When the cache holds
+ * more than maxEntries tokens, the least recently used one is dropped.
+ */
+public class CachingAuthDataAccess extends ForwardingDataAccess {
+
+    private record Entry(String username, long expiresAtNanos) {
+    }
+
+    // in access order, so the eldest entry is the least recently used; guarded by lock
+    private final Map<String, Entry> cache;
+    // a plain lock rather than synchronized, so a virtual thread waiting never pins its carrier
+    private final ReentrantLock lock = new ReentrantLock();
+    private final int maxEntries;
+    private final long ttlNanos;
+    // bumped by every invalidation, so a lookup that raced one does not cache what it read
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public CachingAuthDataAccess(DataAccess delegate, int maxEntries, long ttlMillis) {
+        super(delegate);
+        if (maxEntries <= 0 || ttlMillis <= 0) {
+            throw new IllegalArgumentException("Cache size and time to live must be positive");
+        }
+        this.maxEntries = maxEntries;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public String getUsernameByToken(String authToken) throws Exception {
+        if (authToken == null) {
+            return delegate.getUsernameByToken(null);
+        }
+        Entry entry = lookup(authToken);
+        if (entry != null) {
+            hits.incrementAndGet();
+            return entry.username;
+        }
+        misses.incrementAndGet();
+        long seen = invalidations.get();
+        String username = delegate.getUsernameByToken(authToken);
+        if (username != null && invalidations.get() == seen) {
+            remember(authToken, username);
+            if (invalidations.get() != seen) {
+                forget(authToken);
+            }
+        }
+        return username;
+    }
+
+    @Override
+    public RegisterResult registerUser(RegisterRequest request) throws Exception {
+        RegisterResult result = delegate.registerUser(request);
+        if (result != null && result.getAuthToken() != null) {
+            remember(result.getAuthToken(), result.getUsername());
+        }
+        return result;
+    }
+
+    @Override
+    public SessionResult loginUser(SessionRequest request) throws Exception {
+        SessionResult result = delegate.loginUser(request);
+        if (result != null && result.getAuthToken() != null) {
+            remember(result.getAuthToken(), result.getUsername());
+        }
+        return result;
+    }
+
+    @Override
+    public boolean invalidateToken(String authToken) throws Exception {
+        if (authToken == null) {
+            return delegate.invalidateToken(null);
+        }
+        invalidations.incrementAndGet();
+        forget(authToken);
+        try {
+            return delegate.invalidateToken(authToken);
+        } finally {
+            // a lookup that started after the first removal may have cached the token again
+            invalidations.incrementAndGet();
+            forget(authToken);
+        }
+    }
+
+    @Override
+    public void clear() {
+        invalidations.incrementAndGet();
+        lock.lock();
+        try {
+            cache.clear();
+        } finally {
+            lock.unlock();
+        }
+        delegate.clear();
+    }
+
+    /**
+     * @return the token's live entry, marked as just used, or null if it has none
+     */
+    private Entry lookup(String authToken) {
+        lock.lock();
+        try {
+            Entry entry = cache.get(authToken);
+            if (entry != null && entry.expiresAtNanos - System.nanoTime() <= 0) {
+                cache.remove(authToken);
+                return null;
+            }
+            return entry;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void remember(String authToken, String username) {
+        lock.lock();
+        try {
+            // evicts the least recently used token once the cache is over its bound
+            cache.put(authToken, new Entry(username, System.nanoTime() + ttlNanos));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void forget(String authToken) {
+        lock.lock();
+        try {
+            cache.remove(authToken);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Stats getStats() {
+        lock.lock();
+        try {
+            return new Stats(cache.size(), hits.get(), misses.get());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * A snapshot of the cache's counters.
+     */
+    public record Stats(int size, long hits, long misses) {
+    }
+}
@@ -0,0 +1,197 @@
+package dataaccess;
+
+import chess.ChessGame;
+import chess.model.data.GameData;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps the metadata - name and players - of games still being played in memory, so the
+ * per-command checks of who plays which color and whether the game is over do not query
+ * the wrapped DataAccess.
+ * <p>
+ * getGameData reads a game through the cache and returns copies of the cached entry, so
+ * callers may change what they get and hand it back with updateGame. updateGame writes
+ * through and refreshes the entry only once the write succeeded, so the cache never
+ * runs ahead of the store.
+ * <p>
+ * Finished games are not kept: finishGame, or an update that records a result, drops the
+ * game's entry, and a game read back with a result is returned without being cached. The
+ * wrapped store keeps a recorded result final, so an update made from a copy taken before
+ * the game ended cannot reopen it. Games still being played are read again once their
+ * entry is liveTtlMillis old, which bounds how long a player change or result recorded by
+ * another server sharing the store goes unseen here. When the cache holds more than
+ * maxEntries games, the least recently used one is dropped.
+ */
+public class CachingGameDataAccess extends ForwardingDataAccess {
+
+    private static final int STRIPES = 32;
+
+    private record Entry(GameData game, long loadedAtNanos) {
+    }
+
+    // in access order, so the eldest entry is the least recently used; guarded by lock
+    private final Map<Integer, Entry> games;
+    // a plain lock rather than synchronized, so a virtual thread waiting never pins its carrier
+    private final ReentrantLock lock = new ReentrantLock();
+    private final int maxEntries;
+    private final long liveTtlNanos;
+    // updates of one game are serialized so the store and the cache apply them in the same order
+    private final ReentrantLock[] updateLocks = new ReentrantLock[STRIPES];
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public CachingGameDataAccess(DataAccess delegate, int maxEntries, long liveTtlMillis) {
+        super(delegate);
+        if (maxEntries <= 0 || liveTtlMillis <= 0) {
+            throw new IllegalArgumentException("Cache size and time to live must be positive");
+        }
+        this.maxEntries = maxEntries;
+        this.liveTtlNanos = TimeUnit.MILLISECONDS.toNanos(liveTtlMillis);
+        this.games = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        for (int i = 0; i < STRIPES; i++) {
+            updateLocks[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    public GameData getGameData(int gameID) throws DataAccessException {
+        Entry entry = cached(gameID);
+        if (isLive(entry)) {
+            hits.incrementAndGet();
+            return new GameData(entry.game);
+        }
+        // loading under the game's update lock keeps an update from landing between the read
+        // and the put, which would leave the row read before it in the cache
+        ReentrantLock updateLock = updateLocks[Math.floorMod(gameID, STRIPES)];
+        updateLock.lock();
+        try {
+            entry = cached(gameID);
+            if (isLive(entry)) {
+                hits.incrementAndGet();
+                return new GameData(entry.game);
+            }
+            misses.incrementAndGet();
+            GameData loaded = delegate.getGameData(gameID);
+            lock.lock();
+            try {
+                if (loaded == null || loaded.isGameOver()) {
+                    games.remove(gameID);
+                } else {
+                    games.put(gameID, new Entry(new GameData(loaded), System.nanoTime()));
+                }
+            } finally {
+                lock.unlock();
+            }
+            return loaded;
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    @Override
+    public GameData createGame(GameData game, String authToken) throws DataAccessException {
+        GameData created = delegate.createGame(game, authToken);
+        if (created != null) {
+            lock.lock();
+            try {
+                games.put(created.getGameId(), new Entry(new GameData(created), System.nanoTime()));
+            } finally {
+                lock.unlock();
+            }
+        }
+        return created;
+    }
+
+    @Override
+    public void updateGame(GameData game) throws DataAccessException {
+        ReentrantLock updateLock = updateLocks[Math.floorMod(game.getGameId(), STRIPES)];
+        updateLock.lock();
+        try {
+            GameData updated = new GameData(game);
+            delegate.updateGame(updated);
+            lock.lock();
+            try {
+                // only an entry that is already cached is refreshed: with none, the store may
+                // hold a result this copy predates, so the next read loads it instead
+                if (updated.isGameOver()) {
+                    games.remove(updated.getGameId());
+                } else if (games.containsKey(updated.getGameId())) {
+                    games.put(updated.getGameId(), new Entry(updated, System.nanoTime()));
+                }
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean finishGame(int gameID, GameData.Termination termination, ChessGame.TeamColor winner)
+            throws DataAccessException {
+        ReentrantLock updateLock = updateLocks[Math.floorMod(gameID, STRIPES)];
+        updateLock.lock();
+        try {
+            boolean finished = delegate.finishGame(gameID, termination, winner);
+            lock.lock();
+            try {
+                games.remove(gameID);
+            } finally {
+                lock.unlock();
+            }
+            return finished;
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.lock();
+        try {
+            games.clear();
+        } finally {
+            lock.unlock();
+        }
+        delegate.clear();
+    }
+
+    private boolean isLive(Entry entry) {
+        return entry != null && System.nanoTime() - entry.loadedAtNanos <= liveTtlNanos;
+    }
+
+    private Entry cached(int gameID) {
+        lock.lock();
+        try {
+            return games.get(gameID);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Stats getStats() {
+        lock.lock();
+        try {
+            return new Stats(games.size(), hits.get(), misses.get());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * A snapshot of the cache's counters.
+     */
+    public record Stats(int size, long hits, long misses) {
+    }
+}
@@ -0,0 +1,251 @@
+package dataaccess;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded pool of JDBC connections. Callers use the returned connections exactly like
+ * DriverManager connections; closing one hands it back to the pool instead of tearing
+ * down the TCP session.
+ * <p>
+ * At most maxSize connections are handed out at once; further callers wait up to the
+ * acquire timeout. Idle connections are closed after the idle timeout, and a connection
+ * that sat idle for longer than the validation interval is checked with isValid before
+ * it is reused. Only lock-free structures and a semaphore are used, so waiting callers
+ * never pin a virtual thread's carrier.
+ */
+public class ConnectionPool {
+
+    private static final long VALIDATION_INTERVAL_MILLIS = 5_000;
+
+    private final String url;
+    private final String username;
+    private final String password;
+    private final String catalog;
+    private final int maxSize;
+    private final long idleTimeoutMillis;
+    private final long acquireTimeoutMillis;
+    private final int validationTimeoutSeconds;
+
+    private final Semaphore permits;
+    private final Deque<IdleConnection> idle = new ConcurrentLinkedDeque<>();
+    private final ScheduledExecutorService evictor;
+
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong closed = new AtomicLong();
+    private final AtomicLong acquired = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong waitNanos = new AtomicLong();
+
+    private volatile boolean shutdown;
+
+    private record IdleConnection(Connection connection, long idleSince) {
+    }
+
+    public ConnectionPool(String url, String username, String password, String catalog, int maxSize,
+                          long idleTimeoutMillis, long acquireTimeoutMillis, int validationTimeoutSeconds) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Pool size must be positive");
+        }
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.catalog = catalog;
+        this.maxSize = maxSize;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+        this.permits = new Semaphore(maxSize, true);
+
+        this.evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "connection-pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(idleTimeoutMillis / 2, 1_000);
+        evictor.scheduleAtFixedRate(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrows a connection, reusing an idle one when possible. Close the returned
+     * connection to give it back.
+     */
+    public Connection getConnection() throws SQLException {
+        if (shutdown) {
+            throw new SQLException("Connection pool is shut down");
+        }
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                timeouts.incrementAndGet();
+                throw new SQLException("Timed out after " + acquireTimeoutMillis
+                        + " ms waiting for a database connection");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", ex);
+        }
+        waitNanos.addAndGet(System.nanoTime() - start);
+
+        try {
+            Connection connection = takeIdle();
+            if (connection == null) {
+                connection = open();
+            }
+            acquired.incrementAndGet();
+            return wrap(connection);
+        } catch (SQLException | RuntimeException ex) {
+            permits.release();
+            throw ex;
+        }
+    }
+
+    private Connection takeIdle() {
+        IdleConnection entry;
+        while ((entry = idle.pollFirst()) != null) {
+            long idleFor = System.currentTimeMillis() - entry.idleSince();
+            if (idleFor > idleTimeoutMillis || (idleFor > VALIDATION_INTERVAL_MILLIS && !isValid(entry.connection()))) {
+                discard(entry.connection());
+                continue;
+            }
+            return entry.connection();
+        }
+        return null;
+    }
+
+    private Connection open() throws SQLException {
+        Connection connection = DriverManager.getConnection(url, username, password);
+        try {
+            connection.setCatalog(catalog);
+        } catch (SQLException ex) {
+            connection.close();
+            throw ex;
+        }
+        created.incrementAndGet();
+        return connection;
+    }
+
+    private boolean isValid(Connection connection) {
+        try {
+            return connection.isValid(validationTimeoutSeconds);
+        } catch (SQLException ex) {
+            return false;
+        }
+    }
+
+    private void release(Connection connection) {
+        try {
+            boolean reusable = !shutdown && !connection.isClosed();
+            if (reusable && !connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+            if (reusable) {
+                // most recently used first, so the oldest idle connections age out
+                idle.offerFirst(new IdleConnection(connection, System.currentTimeMillis()));
+            } else {
+                discard(connection);
+            }
+        } catch (SQLException ex) {
+            discard(connection);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void discard(Connection connection) {
+        closed.incrementAndGet();
+        try {
+            connection.close();
+        } catch (SQLException ignored) {
+            // already broken; nothing more to release
+        }
+    }
+
+    private void evictIdle() {
+        long now = System.currentTimeMillis();
+        for (IdleConnection entry : idle) {
+            if (now - entry.idleSince() > idleTimeoutMillis && idle.remove(entry)) {
+                discard(entry.connection());
+            }
+        }
+    }
+
+    /**
+     * Closes every idle connection and stops handing out new ones. Borrowed connections
+     * are closed when they are returned.
+     */
+    public void shutdown() {
+        shutdown = true;
+        evictor.shutdownNow();
+        IdleConnection entry;
+        while ((entry = idle.pollFirst()) != null) {
+            discard(entry.connection());
+        }
+    }
+
+    public Stats getStats() {
+        long open = created.get() - closed.get();
+        return new Stats(maxSize, maxSize - permits.availablePermits(), idle.size(), open, created.get(),
+                acquired.get(), timeouts.get(), TimeUnit.NANOSECONDS.toMillis(waitNanos.get()));
+    }
+
+    private Connection wrap(Connection connection) {
+        InvocationHandler handler = new InvocationHandler() {
+            private boolean returned;
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                switch (method.getName()) {
+                    case "close" -> {
+                        if (!returned) {
+                            returned = true;
+                            release(connection);
+                        }
+                        return null;
+                    }
+                    case "isClosed" -> {
+                        return returned || connection.isClosed();
+                    }
+                    case "equals" -> {
+                        return proxy == args[0];
+                    }
+                    case "hashCode" -> {
+                        return System.identityHashCode(proxy);
+                    }
+                    default -> {
+                        if (returned) {
+                            throw new SQLException("Connection has already been returned to the pool");
+                        }
+                    }
+                }
+                try {
+                    return method.invoke(connection, args);
+                } catch (InvocationTargetException ex) {
+                    throw ex.getCause();
+                }
+            }
+        };
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, handler);
+    }
+
+    /**
+     * A snapshot of the pool's counters.
+     */
+    public record Stats(int maxSize, int active, int idle, long open, long totalCreated,
+                        long totalAcquired, long acquireTimeouts, long totalWaitMillis) {
+    }
+}
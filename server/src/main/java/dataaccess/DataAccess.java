@@ -1,7 +1,9 @@
 package dataaccess;
 
 import chess.ChessGame;
+import chess.ChessMove;
 import chess.model.data.GameData;
+import chess.model.request.GameListRequest;
 import chess.model.request.RegisterRequest;
 import chess.model.request.SessionRequest;
 import chess.model.result.RegisterResult;
@@ -24,11 +26,33 @@ public interface DataAccess {
 
     List<GameData> listGames() throws DataAccessException;
 
+    /**
+     * Lists up to limit games with an ID above afterGameID, in ID order, that match the
+     * filters of request. The request's cursor and limit are not read.
+     */
+    List<GameData> listGames(int afterGameID, int limit, GameListRequest request) throws DataAccessException;
+
     void updateGame(GameData game) throws DataAccessException;
 
+    /**
+     * Records how a game ended without touching its players, so it cannot undo a join or
+     * leave made since the caller read the game. A game that already has a result keeps it.
+     *
+     * @return whether this call recorded the result
+     */
+    boolean finishGame(int gameID, GameData.Termination termination, ChessGame.TeamColor winner)
+            throws DataAccessException;
+
     GameData getGameData(int gameID) throws DataAccessException;
     ChessGame getChessGame(int gameID) throws DataAccessException;
 
     void updateChessGame(int gameID, ChessGame game) throws DataAccessException;
 
+    /**
+     * Records moves firstPly, firstPly + 1, ... of a game. getChessGame replays the moves
+     * recorded after the last updateChessGame snapshot, so a game only needs a snapshot
+     * every so often.
+     */
+    void appendMoves(int gameID, int firstPly, List<ChessMove> moves) throws DataAccessException;
+
 }
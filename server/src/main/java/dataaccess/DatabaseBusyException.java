@@ -0,0 +1,11 @@
+package dataaccess;
+
+/**
+ * Indicates a call was turned away because the database was too busy to take it; the same
+ * call may well succeed later.
+ */
+public class DatabaseBusyException extends DataAccessException {
+    public DatabaseBusyException(String message) {
+        super(message);
+    }
+}
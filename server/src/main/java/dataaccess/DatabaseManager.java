@@ -8,6 +8,17 @@ public class DatabaseManager {
     private static String dbUsername;
     private static String dbPassword;
     private static String connectionUrl;
+    private static ConnectionPool pool;
+    private static int gameFlushEvery;
+    private static long gameFlushLagMillis;
+    private static long gameResidentIdleMillis;
+    private static long gameMetadataTtlMillis;
+    private static int gameCacheSize;
+    private static int limiterMaxConcurrent;
+    private static int limiterMaxWaiting;
+    private static long limiterAcquireTimeoutMillis;
+    private static int authCacheSize;
+    private static long authCacheTtlMillis;
 
     /*
      * Load the database information for the db.properties file.
@@ -30,9 +41,10 @@ public class DatabaseManager {
     }
 
     /**
-     * Create a connection to the database and sets the catalog based upon the
+     * Borrow a connection from the pool, with the catalog set based upon the
      * properties specified in db.properties. Connections to the database should
-     * be short-lived, and you must close the connection when you are done with it.
+     * be short-lived, and you must close the connection when you are done with it;
+     * closing returns it to the pool.
      * The easiest way to do that is with a try-with-resource block.
      * <br/>
      * <code>
@@ -44,14 +56,92 @@ public class DatabaseManager {
     static Connection getConnection() throws DataAccessException {
         try {
             //do not wrap the following line with a try-with-resources
-            var conn = DriverManager.getConnection(connectionUrl, dbUsername, dbPassword);
-            conn.setCatalog(databaseName);
-            return conn;
+            return pool.getConnection();
         } catch (SQLException ex) {
             throw new DataAccessException("failed to get connection", ex);
         }
     }
 
+    /**
+     * @return the current connection pool counters
+     */
+    public static ConnectionPool.Stats getPoolStats() {
+        return pool.getStats();
+    }
+
+    /**
+     * @return how many game state writes may be buffered before they are flushed,
+     * or 0 to flush on the timer only
+     */
+    public static int getGameFlushEvery() {
+        return gameFlushEvery;
+    }
+
+    /**
+     * @return the longest a buffered game state write may wait before it is flushed
+     */
+    public static long getGameFlushLagMillis() {
+        return gameFlushLagMillis;
+    }
+
+    /**
+     * @return how long a game may go unplayed before its chess state is dropped from memory
+     */
+    public static long getGameResidentIdleMillis() {
+        return gameResidentIdleMillis;
+    }
+
+    /**
+     * @return how long the cached players and result of a game still being played are
+     * trusted before they are read again; changes made through this server refresh the cache
+     * at once, so this only bounds how stale a change made by another server can be here
+     */
+    public static long getGameMetadataTtlMillis() {
+        return gameMetadataTtlMillis;
+    }
+
+    /**
+     * @return how many games in progress may have their players cached
+     */
+    public static int getGameCacheSize() {
+        return gameCacheSize;
+    }
+
+    /**
+     * @return how many data access calls may run at once
+     */
+    public static int getLimiterMaxConcurrent() {
+        return limiterMaxConcurrent;
+    }
+
+    /**
+     * @return how many data access calls may wait for a turn before more are turned away
+     */
+    public static int getLimiterMaxWaiting() {
+        return limiterMaxWaiting;
+    }
+
+    /**
+     * @return the longest a data access call may wait for a turn
+     */
+    public static long getLimiterAcquireTimeoutMillis() {
+        return limiterAcquireTimeoutMillis;
+    }
+
+    /**
+     * @return how many auth tokens may be cached
+     */
+    public static int getAuthCacheSize() {
+        return authCacheSize;
+    }
+
+    /**
+     * @return how long a cached auth token is trusted before it is looked up again
+     */
+    public static long getAuthCacheTtlMillis() {
+        return authCacheTtlMillis;
+    }
+
     private static void loadPropertiesFromResources() {
         try (var propStream = Thread.currentThread().getContextClassLoader().getResourceAsStream("db.properties")) {
             if (propStream == null) {
@@ -73,5 +163,29 @@ public class DatabaseManager {
         var host = props.getProperty("db.host");
         var port = Integer.parseInt(props.getProperty("db.port"));
         connectionUrl = String.format("jdbc:mysql://%s:%d", host, port);
+
+        // Optional pool settings
+        int poolSize = Integer.parseInt(props.getProperty("db.pool.maxSize", "10"));
+        long idleTimeout = Long.parseLong(props.getProperty("db.pool.idleTimeoutSeconds", "300"));
+        long acquireTimeout = Long.parseLong(props.getProperty("db.pool.acquireTimeoutSeconds", "30"));
+        int validationTimeout = Integer.parseInt(props.getProperty("db.pool.validationTimeoutSeconds", "2"));
+        pool = new ConnectionPool(connectionUrl, dbUsername, dbPassword, databaseName, poolSize,
+                idleTimeout * 1000, acquireTimeout * 1000, validationTimeout);
+
+        // Optional write-behind settings for game state
+        gameFlushEvery = Integer.parseInt(props.getProperty("db.games.flushEvery", "0"));
+        gameFlushLagMillis = Long.parseLong(props.getProperty("db.games.flushLagMillis", "500"));
+        gameResidentIdleMillis = Long.parseLong(props.getProperty("db.games.residentIdleSeconds", "300")) * 1000;
+        gameMetadataTtlMillis = Long.parseLong(props.getProperty("db.games.metadataTtlMillis", "300000"));
+        gameCacheSize = Integer.parseInt(props.getProperty("db.games.cacheSize", "10000"));
+
+        // Optional limits on concurrent data access, defaulting to one call per pooled connection
+        limiterMaxConcurrent = Integer.parseInt(props.getProperty("db.limiter.maxConcurrent", String.valueOf(poolSize)));
+        limiterMaxWaiting = Integer.parseInt(props.getProperty("db.limiter.maxWaiting", "1000"));
+        limiterAcquireTimeoutMillis = Long.parseLong(props.getProperty("db.limiter.acquireTimeoutMillis", "5000"));
+
+        // Optional auth token cache settings
+        authCacheSize = Integer.parseInt(props.getProperty("db.auth.cacheSize", "10000"));
+        authCacheTtlMillis = Long.parseLong(props.getProperty("db.auth.cacheTtlSeconds", "300")) * 1000;
     }
 }
@@ -0,0 +1,97 @@
+package dataaccess;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.model.data.GameData;
+import chess.model.request.GameListRequest;
+import chess.model.request.RegisterRequest;
+import chess.model.request.SessionRequest;
+import chess.model.result.RegisterResult;
+import chess.model.result.SessionResult;
+
+import java.util.List;
+
+/**
+ * A DataAccess that passes every call through to another one. Decorators extend this
+ * and override only the calls they change.
+ */
+public abstract class ForwardingDataAccess implements DataAccess {
+
+    protected final DataAccess delegate;
+
+    protected ForwardingDataAccess(DataAccess delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public RegisterResult registerUser(RegisterRequest request) throws Exception {
+        return delegate.registerUser(request);
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+    }
+
+    @Override
+    public SessionResult loginUser(SessionRequest request) throws Exception {
+        return delegate.loginUser(request);
+    }
+
+    @Override
+    public boolean invalidateToken(String authToken) throws Exception {
+        return delegate.invalidateToken(authToken);
+    }
+
+    @Override
+    public String getUsernameByToken(String authToken) throws Exception {
+        return delegate.getUsernameByToken(authToken);
+    }
+
+    @Override
+    public GameData createGame(GameData game, String authToken) throws DataAccessException {
+        return delegate.createGame(game, authToken);
+    }
+
+    @Override
+    public List<GameData> listGames() throws DataAccessException {
+        return delegate.listGames();
+    }
+
+    @Override
+    public List<GameData> listGames(int afterGameID, int limit, GameListRequest request)
+            throws DataAccessException {
+        return delegate.listGames(afterGameID, limit, request);
+    }
+
+    @Override
+    public void updateGame(GameData game) throws DataAccessException {
+        delegate.updateGame(game);
+    }
+
+    @Override
+    public boolean finishGame(int gameID, GameData.Termination termination, ChessGame.TeamColor winner)
+            throws DataAccessException {
+        return delegate.finishGame(gameID, termination, winner);
+    }
+
+    @Override
+    public GameData getGameData(int gameID) throws DataAccessException {
+        return delegate.getGameData(gameID);
+    }
+
+    @Override
+    public ChessGame getChessGame(int gameID) throws DataAccessException {
+        return delegate.getChessGame(gameID);
+    }
+
+    @Override
+    public void updateChessGame(int gameID, ChessGame game) throws DataAccessException {
+        delegate.updateChessGame(gameID, game);
+    }
+
+    @Override
+    public void appendMoves(int gameID, int firstPly, List<ChessMove> moves) throws DataAccessException {
+        delegate.appendMoves(gameID, firstPly, moves);
+    }
+}
@@ -0,0 +1,176 @@
+package dataaccess;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.model.data.GameData;
+import chess.model.request.GameListRequest;
+import chess.model.request.RegisterRequest;
+import chess.model.request.SessionRequest;
+import chess.model.result.RegisterResult;
+import chess.model.result.SessionResult;
+
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounds how many calls may run against the wrapped DataAccess at once.
+ * <p>
+ * When handlers run on virtual threads there is no thread pool left to cap the load, so
+ * thousands of requests can reach the database together. Calls beyond maxConcurrent
+ * wait in arrival order for up to acquireTimeoutMillis. Once maxWaiting calls are
+ * already waiting, further calls fail straight away instead of piling up, so an
+ * overloaded server answers quickly with an error rather than slowly with nothing.
+ * Turned away calls fail with a DatabaseBusyException.
+ */
+public class LimitedDataAccess extends ForwardingDataAccess {
+
+    private final Semaphore permits;
+    private final int maxWaiting;
+    private final long acquireTimeoutMillis;
+
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+
+    public LimitedDataAccess(DataAccess delegate, int maxConcurrent, int maxWaiting, long acquireTimeoutMillis) {
+        super(delegate);
+        if (maxConcurrent <= 0) {
+            throw new IllegalArgumentException("Concurrency limit must be positive");
+        }
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.maxWaiting = maxWaiting;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+    }
+
+    @FunctionalInterface
+    private interface Call<T, E extends Exception> {
+        T run() throws E;
+    }
+
+    private <T, E extends Exception> T limited(Call<T, E> call) throws E, DataAccessException {
+        acquire();
+        try {
+            return call.run();
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void acquire() throws DataAccessException {
+        if (permits.tryAcquire()) {
+            return;
+        }
+        if (permits.getQueueLength() >= maxWaiting) {
+            rejected.incrementAndGet();
+            throw new DatabaseBusyException("Database is busy, try again later");
+        }
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                timedOut.incrementAndGet();
+                throw new DatabaseBusyException("Timed out waiting for the database");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new DataAccessException("Interrupted waiting for the database", ex);
+        }
+    }
+
+    @Override
+    public RegisterResult registerUser(RegisterRequest request) throws Exception {
+        return limited(() -> delegate.registerUser(request));
+    }
+
+    @Override
+    public void clear() {
+        try {
+            limited(() -> {
+                delegate.clear();
+                return null;
+            });
+        } catch (DataAccessException ex) {
+            throw new RuntimeException(ex.getMessage(), ex);
+        }
+    }
+
+    @Override
+    public SessionResult loginUser(SessionRequest request) throws Exception {
+        return limited(() -> delegate.loginUser(request));
+    }
+
+    @Override
+    public boolean invalidateToken(String authToken) throws Exception {
+        return limited(() -> delegate.invalidateToken(authToken));
+    }
+
+    @Override
+    public String getUsernameByToken(String authToken) throws Exception {
+        return limited(() -> delegate.getUsernameByToken(authToken));
+    }
+
+    @Override
+    public GameData createGame(GameData game, String authToken) throws DataAccessException {
+        return limited(() -> delegate.createGame(game, authToken));
+    }
+
+    @Override
+    public List<GameData> listGames() throws DataAccessException {
+        return limited(delegate::listGames);
+    }
+
+    @Override
+    public List<GameData> listGames(int afterGameID, int limit, GameListRequest request)
+            throws DataAccessException {
+        return limited(() -> delegate.listGames(afterGameID, limit, request));
+    }
+
+    @Override
+    public void updateGame(GameData game) throws DataAccessException {
+        limited(() -> {
+            delegate.updateGame(game);
+            return null;
+        });
+    }
+
+    @Override
+    public boolean finishGame(int gameID, GameData.Termination termination, ChessGame.TeamColor winner)
+            throws DataAccessException {
+        return limited(() -> delegate.finishGame(gameID, termination, winner));
+    }
+
+    @Override
+    public GameData getGameData(int gameID) throws DataAccessException {
+        return limited(() -> delegate.getGameData(gameID));
+    }
+
+    @Override
+    public ChessGame getChessGame(int gameID) throws DataAccessException {
+        return limited(() -> delegate.getChessGame(gameID));
+    }
+
+    @Override
+    public void updateChessGame(int gameID, ChessGame game) throws DataAccessException {
+        limited(() -> {
+            delegate.updateChessGame(gameID, game);
+            return null;
+        });
+    }
+
+    @Override
+    public void appendMoves(int gameID, int firstPly, List<ChessMove> moves) throws DataAccessException {
+        limited(() -> {
+            delegate.appendMoves(gameID, firstPly, moves);
+            return null;
+        });
+    }
+
+    public Stats getStats() {
+        return new Stats(permits.availablePermits(), permits.getQueueLength(), rejected.get(), timedOut.get());
+    }
+
+    /**
+     * A snapshot of the limiter's counters.
+     */
+    public record Stats(int available, int waiting, long rejected, long timedOut) {
+    }
+}
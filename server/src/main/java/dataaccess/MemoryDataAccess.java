@@ -1,7 +1,9 @@
 package dataaccess;
 
 import chess.ChessGame;
+import chess.ChessMove;
 import chess.model.data.GameData;
+import chess.model.request.GameListRequest;
 import chess.model.request.RegisterRequest;
 import chess.model.request.SessionRequest;
 import chess.model.result.RegisterResult;
@@ -93,6 +95,28 @@ public class MemoryDataAccess implements DataAccess {
         }
     }
 
+    @Override
+    public List<GameData> listGames(int afterGameID, int limit, GameListRequest request) {
+        return games.values().stream()
+                .filter(game -> game.getGameId() > afterGameID && matches(game, request))
+                .sorted(Comparator.comparing(GameData::getGameId))
+                .limit(limit)
+                .toList();
+    }
+
+    private static boolean matches(GameData game, GameListRequest request) {
+        if (request.getOpenSeats() != null
+                && request.getOpenSeats() != (game.getWhiteUsername() == null || game.getBlackUsername() == null)) {
+            return false;
+        }
+        if (request.getPlayer() != null && !request.getPlayer().equals(game.getWhiteUsername())
+                && !request.getPlayer().equals(game.getBlackUsername())) {
+            return false;
+        }
+        return request.getStatus() == null
+                || game.isGameOver() == (request.getStatus() == GameListRequest.Status.FINISHED);
+    }
+
     @Override
     public GameData getGameData(int gameID) throws DataAccessException {
 
@@ -113,17 +137,44 @@ public class MemoryDataAccess implements DataAccess {
 
     }
 
+    @Override
+    public void appendMoves(int gameID, int firstPly, List<ChessMove> moves) throws DataAccessException {
+        // the live ChessGame is kept by reference, so it already holds these moves and no log is needed
+    }
+
     @Override
     public void updateGame(GameData game) throws DataAccessException {
         if (game == null || game.getGameId() <= 0) {
             throw new DataAccessException("Cannot update game with null ID");
         }
 
-        if (!games.containsKey(game.getGameId())) {
+        GameData stored = games.get(game.getGameId());
+        if (stored == null) {
             throw new DataAccessException("Game not found");
         }
 
-        games.put(game.getGameId(), game);
+        // a recorded result is final, so an update made from an older copy cannot reopen the game
+        GameData updated = new GameData(game);
+        if (stored.isGameOver()) {
+            updated.finish(stored.getTermination(), stored.getWinner());
+        }
+        games.put(game.getGameId(), updated);
+    }
+
+    @Override
+    public boolean finishGame(int gameID, GameData.Termination termination, ChessGame.TeamColor winner)
+            throws DataAccessException {
+        GameData stored = games.get(gameID);
+        if (stored == null) {
+            throw new DataAccessException("Game not found");
+        }
+        if (stored.isGameOver()) {
+            return false;
+        }
+        GameData finished = new GameData(stored);
+        finished.finish(termination, winner);
+        games.put(gameID, finished);
+        return true;
     }
 
 
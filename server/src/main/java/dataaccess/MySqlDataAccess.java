@@ -1,7 +1,12 @@
 package dataaccess;
 
 import chess.ChessGame;
+import chess.ChessMove;
+import chess.GameStateCodec;
+import chess.InvalidMoveException;
+import chess.PackedMove;
 import chess.model.data.GameData;
+import chess.model.request.GameListRequest;
 import chess.model.request.RegisterRequest;
 import chess.model.request.SessionRequest;
 import chess.model.result.RegisterResult;
@@ -18,6 +23,11 @@ import java.util.UUID;
 import static dataaccess.DatabaseManager.getConnection;
 
 public class MySqlDataAccess implements DataAccess{
+    // the metadata columns, so listings never read the stored game state
+    private static final String GAME_COLUMNS = "gameID, gameName, whiteUsername, blackUsername, termination, winner";
+    // the schema configureDatabase leaves behind; bump it with each new migration step
+    private static final int SCHEMA_VERSION = 2;
+
     private int nextGameId = 1;
     private final Gson gson = new Gson();
 
@@ -54,9 +64,30 @@ public class MySqlDataAccess implements DataAccess{
             blackUsername VARCHAR(50),
             gameName VARCHAR(100) NOT NULL,
             game_state TEXT,
+            game_state_bin VARBINARY(64),
+            snapshot_ply INT NOT NULL DEFAULT 0,
+            termination VARCHAR(16),
+            winner VARCHAR(5),
+            INDEX games_by_termination (termination, gameID),
             FOREIGN KEY (whiteUsername) REFERENCES users(username) ON DELETE SET NULL,
             FOREIGN KEY (blackUsername) REFERENCES users(username) ON DELETE SET NULL
     );
+    """,
+
+            """
+            CREATE TABLE IF NOT EXISTS moves (
+            gameID INT NOT NULL,
+            ply INT NOT NULL,
+            move SMALLINT NOT NULL,
+            PRIMARY KEY (gameID, ply),
+            FOREIGN KEY (gameID) REFERENCES games(gameID) ON DELETE CASCADE
+    );
+    """,
+
+            """
+            CREATE TABLE IF NOT EXISTS schema_version (
+            version INT NOT NULL PRIMARY KEY
+    );
     """
 
     };
@@ -68,11 +99,99 @@ public class MySqlDataAccess implements DataAccess{
                     preparedStatement.executeUpdate();
                 }
             }
+            // each step is safe to repeat, so a startup that fails part way just runs it again
+            int version = readSchemaVersion(conn);
+            if (version < 1) {
+                migrateGameState(conn);
+            }
+            if (version < 2) {
+                addColumnIfMissing(conn, "games", "termination", "VARCHAR(16) AFTER snapshot_ply");
+                addColumnIfMissing(conn, "games", "winner", "VARCHAR(5) AFTER termination");
+                addIndexIfMissing(conn, "games", "games_by_termination", "(termination, gameID)");
+            }
+            if (version < SCHEMA_VERSION) {
+                try (var stmt = conn.prepareStatement("INSERT IGNORE INTO schema_version (version) VALUES (?)")) {
+                    stmt.setInt(1, SCHEMA_VERSION);
+                    stmt.executeUpdate();
+                }
+            }
         } catch (SQLException ex) {
             throw new DataAccessException(String.format("Unable to configure database: %s", ex.getMessage()), ex);
         }
     }
 
+    private int readSchemaVersion(Connection conn) throws SQLException {
+        try (var stmt = conn.prepareStatement("SELECT COALESCE(MAX(version), 0) FROM schema_version");
+             var rs = stmt.executeQuery()) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    /**
+     * Game state used to be stored as Gson JSON in game_state. Adds the binary snapshot
+     * columns to tables created before they existed and re-encodes any JSON rows, clearing
+     * their JSON.
+     */
+    private void migrateGameState(Connection conn) throws SQLException {
+        addColumnIfMissing(conn, "games", "game_state_bin", "VARBINARY(64) AFTER game_state");
+        addColumnIfMissing(conn, "games", "snapshot_ply", "INT NOT NULL DEFAULT 0 AFTER game_state_bin");
+
+        String legacyQuery = "SELECT gameID, game_state FROM games WHERE game_state IS NOT NULL";
+        try (var select = conn.prepareStatement(legacyQuery);
+             var update = conn.prepareStatement(
+                     "UPDATE games SET game_state_bin = ?, game_state = NULL WHERE gameID = ?");
+             var rs = select.executeQuery()) {
+            while (rs.next()) {
+                ChessGame game = gson.fromJson(rs.getString("game_state"), ChessGame.class);
+                update.setBytes(1, GameStateCodec.encode(game));
+                update.setInt(2, rs.getInt("gameID"));
+                update.executeUpdate();
+            }
+        }
+    }
+
+    private void addColumnIfMissing(Connection conn, String table, String column, String definition)
+            throws SQLException {
+        String columnQuery = """
+                SELECT COUNT(*) FROM information_schema.columns
+                WHERE table_schema = DATABASE() AND table_name = ? AND column_name = ?
+                """;
+        try (var stmt = conn.prepareStatement(columnQuery)) {
+            stmt.setString(1, table);
+            stmt.setString(2, column);
+            try (var rs = stmt.executeQuery()) {
+                rs.next();
+                if (rs.getInt(1) > 0) {
+                    return;
+                }
+            }
+        }
+        try (var alter = conn.prepareStatement("ALTER TABLE " + table + " ADD COLUMN " + column + " " + definition)) {
+            alter.executeUpdate();
+        }
+    }
+
+    private void addIndexIfMissing(Connection conn, String table, String index, String columns)
+            throws SQLException {
+        String indexQuery = """
+                SELECT COUNT(*) FROM information_schema.statistics
+                WHERE table_schema = DATABASE() AND table_name = ? AND index_name = ?
+                """;
+        try (var stmt = conn.prepareStatement(indexQuery)) {
+            stmt.setString(1, table);
+            stmt.setString(2, index);
+            try (var rs = stmt.executeQuery()) {
+                rs.next();
+                if (rs.getInt(1) > 0) {
+                    return;
+                }
+            }
+        }
+        try (var create = conn.prepareStatement("CREATE INDEX " + index + " ON " + table + " " + columns)) {
+            create.executeUpdate();
+        }
+    }
 
     @Override
     public RegisterResult registerUser(RegisterRequest request) throws Exception {
@@ -117,15 +236,19 @@ public class MySqlDataAccess implements DataAccess{
 
     @Override
     public void clear() {
-        String[] tables = { "auth_tokens", "games", "users" }; // child → parent order
+        String[] tables = { "moves", "auth_tokens", "games", "users" }; // child → parent order
         try (Connection conn = getConnection();
              Statement stmt = conn.createStatement()) {
 
             stmt.executeUpdate("SET FOREIGN_KEY_CHECKS = 0;");
-            for (String table : tables) {
-                stmt.executeUpdate("TRUNCATE TABLE " + table + ";");
+            try {
+                for (String table : tables) {
+                    stmt.executeUpdate("TRUNCATE TABLE " + table + ";");
+                }
+            } finally {
+                // pooled connections are reused, so never hand one back with checks disabled
+                stmt.executeUpdate("SET FOREIGN_KEY_CHECKS = 1;");
             }
-            stmt.executeUpdate("SET FOREIGN_KEY_CHECKS = 1;");
         } catch (DataAccessException | SQLException ex) {
             throw new RuntimeException("Failed to initialize MySQL DataAccess", ex);
         }
@@ -230,16 +353,15 @@ public class MySqlDataAccess implements DataAccess{
             if (conn == null) {
                 throw new DataAccessException("Unable to get DB connection");
             }
-            String creatorUsername = getUsernameByToken(authToken);
-            if (creatorUsername == null) {
-                throw new UnauthorizedException("Unauthorized: invalid auth token");
-            }
-            String insertQuery = "INSERT INTO games (whiteUsername, blackUsername, gameName) VALUES (?, ?, ?)";
+            // the insert only happens when the token exists, so the check costs no extra round trip
+            String insertQuery = "INSERT INTO games (whiteUsername, blackUsername, gameName) "
+                    + "SELECT NULL, NULL, ? FROM auth_tokens WHERE authToken = ?";
             try (PreparedStatement stmt = conn.prepareStatement(insertQuery, Statement.RETURN_GENERATED_KEYS)) {
-                stmt.setNull(1, Types.VARCHAR);
-                stmt.setNull(2, Types.VARCHAR);
-                stmt.setString(3, game.getGameName());
-                stmt.executeUpdate();
+                stmt.setString(1, game.getGameName());
+                stmt.setString(2, authToken);
+                if (stmt.executeUpdate() == 0) {
+                    throw new UnauthorizedException("Unauthorized: invalid auth token");
+                }
                 try (ResultSet rs = stmt.getGeneratedKeys()) {
                     if (rs.next()) {
                         int id = rs.getInt(1);
@@ -261,7 +383,7 @@ public class MySqlDataAccess implements DataAccess{
                 throw new DataAccessException("Unable to get DB connection");
             }
 
-            String getQuery = "SELECT * FROM games";
+            String getQuery = "SELECT " + GAME_COLUMNS + " FROM games";
             try (PreparedStatement stmt = conn.prepareStatement(getQuery)) {
                 try (ResultSet rs = stmt.executeQuery()) {
                     while (rs.next()) {
@@ -271,6 +393,7 @@ public class MySqlDataAccess implements DataAccess{
                         String blackUsername = rs.getString("blackUsername");
 
                         GameData game = new GameData(gameID, gameName, whiteUsername, blackUsername);
+                        readResult(rs, game);
 
                         result.add(game);
                     }
@@ -283,13 +406,58 @@ public class MySqlDataAccess implements DataAccess{
         return result;
     }
 
+    @Override
+    public List<GameData> listGames(int afterGameID, int limit, GameListRequest request)
+            throws DataAccessException {
+        // keyset paging on the primary key, so every page costs the same however deep it is
+        StringBuilder query = new StringBuilder("SELECT " + GAME_COLUMNS + " FROM games WHERE gameID > ?");
+        List<Object> params = new ArrayList<>();
+        params.add(afterGameID);
+        if (request.getOpenSeats() != null) {
+            query.append(request.getOpenSeats()
+                    ? " AND (whiteUsername IS NULL OR blackUsername IS NULL)"
+                    : " AND whiteUsername IS NOT NULL AND blackUsername IS NOT NULL");
+        }
+        if (request.getPlayer() != null) {
+            query.append(" AND (whiteUsername = ? OR blackUsername = ?)");
+            params.add(request.getPlayer());
+            params.add(request.getPlayer());
+        }
+        if (request.getStatus() != null) {
+            query.append(request.getStatus() == GameListRequest.Status.FINISHED
+                    ? " AND termination IS NOT NULL"
+                    : " AND termination IS NULL");
+        }
+        query.append(" ORDER BY gameID LIMIT ?");
+        params.add(limit);
+
+        List<GameData> page = new ArrayList<>();
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query.toString())) {
+            for (int i = 0; i < params.size(); i++) {
+                stmt.setObject(i + 1, params.get(i));
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    GameData game = new GameData(rs.getInt("gameID"), rs.getString("gameName"),
+                            rs.getString("whiteUsername"), rs.getString("blackUsername"));
+                    readResult(rs, game);
+                    page.add(game);
+                }
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Database error while listing games: " + e.getMessage(), e);
+        }
+        return page;
+    }
+
     @Override
     public void updateGame(GameData game) throws DataAccessException {
         try (Connection conn = getConnection()) {
             if (conn == null) {
                 throw new DataAccessException("Unable to get DB connection");
             }
-            String getGameQuery = "SELECT * FROM games WHERE gameID = ?";
+            String getGameQuery = "SELECT 1 FROM games WHERE gameID = ?";
             try (PreparedStatement stmt = conn.prepareStatement(getGameQuery)) {
                 stmt.setInt(1, game.getGameId());
                 try (ResultSet rs = stmt.executeQuery()) {
@@ -299,7 +467,11 @@ public class MySqlDataAccess implements DataAccess{
                 }
             }
 
-            String updateGameQuery = "UPDATE games SET whiteUsername = ?, blackUsername = ? WHERE gameID = ?";
+            // a recorded result is final, so an update made from an older copy cannot reopen
+            // the game; winner is assigned first because MySQL applies assignments in order
+            String updateGameQuery = "UPDATE games SET whiteUsername = ?, blackUsername = ?, "
+                    + "winner = IF(termination IS NULL, ?, winner), termination = COALESCE(termination, ?) "
+                    + "WHERE gameID = ?";
 
             try (PreparedStatement stmt = conn.prepareStatement(updateGameQuery)) {
                 // Set the appropriate username based on the color
@@ -315,7 +487,9 @@ public class MySqlDataAccess implements DataAccess{
                     stmt.setNull(2, Types.VARCHAR);
                 }
 
-                stmt.setInt(3, game.getGameId());
+                setNullableName(stmt, 3, game.getWinner());
+                setNullableName(stmt, 4, game.getTermination());
+                stmt.setInt(5, game.getGameId());
                 int rowsUpdated = stmt.executeUpdate();
                 if (rowsUpdated == 0) {
                     throw new DataAccessException("Failed to update the game with ID: " + game.getGameId());
@@ -331,6 +505,51 @@ public class MySqlDataAccess implements DataAccess{
     }
 
 
+    @Override
+    public boolean finishGame(int gameID, GameData.Termination termination, ChessGame.TeamColor winner)
+            throws DataAccessException {
+        try (Connection conn = getConnection()) {
+            try (var stmt = conn.prepareStatement(
+                    "UPDATE games SET termination = ?, winner = ? WHERE gameID = ? AND termination IS NULL")) {
+                setNullableName(stmt, 1, termination);
+                setNullableName(stmt, 2, winner);
+                stmt.setInt(3, gameID);
+                if (stmt.executeUpdate() > 0) {
+                    return true;
+                }
+            }
+            // nothing changed: either the game already has a result or there is no such game
+            try (var stmt = conn.prepareStatement("SELECT 1 FROM games WHERE gameID = ?")) {
+                stmt.setInt(1, gameID);
+                try (var rs = stmt.executeQuery()) {
+                    if (!rs.next()) {
+                        throw new DataAccessException("Game with ID " + gameID + " not found.");
+                    }
+                }
+            }
+            return false;
+        } catch (SQLException ex) {
+            throw new DataAccessException("Database error while finishing game: " + ex.getMessage(), ex);
+        }
+    }
+
+    private static void setNullableName(PreparedStatement stmt, int index, Enum<?> value) throws SQLException {
+        if (value != null) {
+            stmt.setString(index, value.name());
+        } else {
+            stmt.setNull(index, Types.VARCHAR);
+        }
+    }
+
+    private static void readResult(ResultSet rs, GameData game) throws SQLException {
+        String termination = rs.getString("termination");
+        if (termination != null) {
+            String winner = rs.getString("winner");
+            game.finish(GameData.Termination.valueOf(termination),
+                    winner != null ? ChessGame.TeamColor.valueOf(winner) : null);
+        }
+    }
+
     @Override
     public GameData getGameData(int gameID) throws DataAccessException {
 
@@ -339,7 +558,7 @@ public class MySqlDataAccess implements DataAccess{
                 throw new DataAccessException("Unable to get DB connection");
             }
 
-            String getQuery = "SELECT * FROM games WHERE gameID = ?";
+            String getQuery = "SELECT " + GAME_COLUMNS + " FROM games WHERE gameID = ?";
             try (PreparedStatement stmt = conn.prepareStatement(getQuery)) {
                 stmt.setString(1, String.valueOf(gameID));
                 try (ResultSet rs = stmt.executeQuery()) {
@@ -350,6 +569,7 @@ public class MySqlDataAccess implements DataAccess{
                         String blackUsername = rs.getString("blackUsername");
 
                         GameData result = new GameData(gameIdentificator, gameName, whiteUsername, blackUsername);
+                        readResult(rs, result);
                         return result;
                     } else {
                         return null; // Return null if no game is found
@@ -363,25 +583,41 @@ public class MySqlDataAccess implements DataAccess{
         }
     @Override
     public ChessGame getChessGame(int gameID) throws DataAccessException {
-        try (var conn = getConnection();
-             var stmt = conn.prepareStatement(
-                     "SELECT game_state FROM games WHERE gameID = ?")) {  // gameID
-
-            stmt.setInt(1, gameID);
-            try (var rs = stmt.executeQuery()) {
-                if (!rs.next()) {
-                    throw new DataAccessException("Game not found");
-                }
+        try (var conn = getConnection()) {
+            ChessGame game;
+            try (var stmt = conn.prepareStatement(
+                    "SELECT game_state_bin, snapshot_ply FROM games WHERE gameID = ?")) {
+                stmt.setInt(1, gameID);
+                try (var rs = stmt.executeQuery()) {
+                    if (!rs.next()) {
+                        throw new DataAccessException("Game not found");
+                    }
 
-                String json = rs.getString("game_state");
+                    byte[] state = rs.getBytes("game_state_bin");
 
-                if (json == null) {
-                    // no state stored yet → fresh game
-                    return new ChessGame();
+                    // no snapshot stored yet → replay the log from a fresh game
+                    game = state == null ? new ChessGame() : GameStateCodec.decode(state);
+                    game.setPly(state == null ? 0 : rs.getInt("snapshot_ply"));
                 }
+            }
 
-                return gson.fromJson(json, ChessGame.class);
+            try (var stmt = conn.prepareStatement(
+                    "SELECT ply, move FROM moves WHERE gameID = ? AND ply > ? ORDER BY ply")) {
+                stmt.setInt(1, gameID);
+                stmt.setInt(2, game.getPly());
+                try (var rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        if (rs.getInt("ply") != game.getPly() + 1) {
+                            throw new DataAccessException("Move " + (game.getPly() + 1)
+                                    + " of game " + gameID + " is missing from the move log");
+                        }
+                        game.makeMove(PackedMove.toChessMove(rs.getInt("move")));
+                    }
+                }
             }
+            return game;
+        } catch (IllegalArgumentException | InvalidMoveException ex) {
+            throw new DataAccessException("Corrupt game state for game " + gameID, ex);
         } catch (SQLException ex) {
             throw new DataAccessException(ex.getMessage(), ex);
         }
@@ -389,14 +625,15 @@ public class MySqlDataAccess implements DataAccess{
 
     @Override
     public void updateChessGame(int gameID, ChessGame game) throws DataAccessException {
-        String json = gson.toJson(game);
+        byte[] state = GameStateCodec.encode(game);
 
         try (var conn = getConnection();
              var stmt = conn.prepareStatement(
-                     "UPDATE games SET game_state = ? WHERE gameID = ?")) {  // gameID
+                     "UPDATE games SET game_state_bin = ?, snapshot_ply = ? WHERE gameID = ?")) {  // gameID
 
-            stmt.setString(1, json);
-            stmt.setInt(2, gameID);
+            stmt.setBytes(1, state);
+            stmt.setInt(2, game.getPly());
+            stmt.setInt(3, gameID);
 
             int rows = stmt.executeUpdate();
             if (rows == 0) {
@@ -407,4 +644,28 @@ public class MySqlDataAccess implements DataAccess{
         }
     }
 
+    @Override
+    public void appendMoves(int gameID, int firstPly, List<ChessMove> moves) throws DataAccessException {
+        if (moves.isEmpty()) {
+            return;
+        }
+        try (var conn = getConnection()) {
+            // all or nothing, so a retried batch never finds half of itself already logged
+            conn.setAutoCommit(false);
+            try (var stmt = conn.prepareStatement("INSERT INTO moves (gameID, ply, move) VALUES (?, ?, ?)")) {
+                int ply = firstPly;
+                for (ChessMove move : moves) {
+                    stmt.setInt(1, gameID);
+                    stmt.setInt(2, ply++);
+                    stmt.setInt(3, PackedMove.encode(move));
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+            }
+            conn.commit();
+        } catch (SQLException ex) {
+            throw new DataAccessException("Unable to record moves: " + ex.getMessage(), ex);
+        }
+    }
+
 }
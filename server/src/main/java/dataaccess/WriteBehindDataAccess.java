@@ -0,0 +1,351 @@
+package dataaccess;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.model.data.GameData;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps the chess state of active games in memory and writes it back to the wrapped
+ * DataAccess in the background.
+ * <p>
+ * getChessGame loads a game once and then returns the same resident instance, so
+ * callers update it in place and hand it back with updateChessGame. Each update takes a
+ * snapshot and marks the game dirty; repeated updates of a game between flushes
+ * collapse into one write of the latest snapshot. Appended moves are buffered per game
+ * and written as one batch.
+ * <p>
+ * Buffered writes are flushed every flushLagMillis, which bounds how much play a crash
+ * can lose, and as soon as flushEvery writes have been buffered when flushEvery is
+ * positive. flushEvery = 1 makes every write go through before it returns. Call close
+ * on shutdown to flush what is left.
+ * <p>
+ * By the time a write is buffered the caller has already changed the resident game, so a
+ * write that fails is never reported back to the caller; it stays buffered and is tried
+ * again by later flushes. A write that fails MAX_WRITE_ATTEMPTS times is logged and
+ * dropped so it cannot hold up the rest. When a batch of moves, or a snapshot that may
+ * cover dropped moves, is dropped, the game's next move is stored as a full snapshot
+ * instead, which covers the lost moves and keeps the move log free of gaps. A write turned
+ * away with a DatabaseBusyException does not count as an attempt: it only ends the flush,
+ * leaving the rest buffered for the next one, so load shedding never drops game state.
+ * <p>
+ * A game that has been neither read nor written for residentIdleMillis and has nothing
+ * left to write is dropped from memory by the next flush, and loaded again if it is
+ * played later; a game that finishGame ended is dropped as soon as it is written. A game
+ * still owed a snapshot for dropped writes stays until it is stored.
+ */
+public class WriteBehindDataAccess extends ForwardingDataAccess implements AutoCloseable {
+
+    // resident games are played move after move, so they keep the legal moves of recent
+    // positions for repetitions and for the position before a rejected move
+    private static final int POSITION_CACHE_SIZE = 16;
+    static final int MAX_WRITE_ATTEMPTS = 5;
+
+    private final int flushEvery;
+    private final long residentIdleNanos;
+    private final Map<Integer, Resident> resident = new ConcurrentHashMap<>();
+    private final Map<Integer, Snapshot> dirty = new ConcurrentHashMap<>();
+    private final Map<Integer, PendingMoves> pendingMoves = new ConcurrentHashMap<>();
+    // games whose buffered moves were dropped; their next move is stored as a snapshot
+    private final Set<Integer> needSnapshot = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger bufferedWrites = new AtomicInteger();
+    // a plain lock rather than synchronized, so a virtual thread flushing never pins its carrier
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final ScheduledExecutorService flusher;
+
+    private final AtomicLong updates = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong movesWritten = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong evicted = new AtomicLong();
+
+    public WriteBehindDataAccess(DataAccess delegate, int flushEvery, long flushLagMillis, long residentIdleMillis) {
+        super(delegate);
+        if (flushLagMillis <= 0 || residentIdleMillis <= 0) {
+            throw new IllegalArgumentException("Flush interval and idle time must be positive");
+        }
+        this.flushEvery = flushEvery;
+        this.residentIdleNanos = TimeUnit.MILLISECONDS.toNanos(residentIdleMillis);
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "game-state-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushLagMillis, flushLagMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public ChessGame getChessGame(int gameID) throws DataAccessException {
+        // touched in place, so a flush evicting the game either sees the touch or goes first
+        Resident game = resident.computeIfPresent(gameID, (id, current) -> current.touch());
+        if (game == null) {
+            ChessGame loaded = delegate.getChessGame(gameID);
+            if (loaded == null) {
+                return null;
+            }
+            loaded.enablePositionCache(POSITION_CACHE_SIZE);
+            game = resident.computeIfAbsent(gameID, id -> new Resident(loaded));
+        }
+        return game.game;
+    }
+
+    @Override
+    public void updateChessGame(int gameID, ChessGame game) throws DataAccessException {
+        // copy now, while the caller still owns the game, so a flush never sees a half-made move
+        Snapshot snapshot = new Snapshot(new ChessGame(game), 0);
+        resident.put(gameID, new Resident(game));
+        dirty.put(gameID, snapshot);
+        needSnapshot.remove(gameID);
+        updates.incrementAndGet();
+        buffered();
+    }
+
+    @Override
+    public void appendMoves(int gameID, int firstPly, List<ChessMove> moves) throws DataAccessException {
+        Resident game = resident.computeIfPresent(gameID, (id, current) -> current.touch());
+        boolean[] storeSnapshot = new boolean[1];
+        try {
+            pendingMoves.compute(gameID, (id, pending) -> {
+                // checked here, so a batch being dropped either takes these moves along or is seen
+                if (game != null && needSnapshot.contains(id)) {
+                    storeSnapshot[0] = true;
+                    return pending;
+                }
+                if (pending == null) {
+                    pending = new PendingMoves(firstPly);
+                } else if (pending.nextPly() != firstPly) {
+                    throw new IllegalStateException("expected move " + pending.nextPly() + " but got " + firstPly);
+                }
+                pending.moves.addAll(moves);
+                return pending;
+            });
+        } catch (IllegalStateException ex) {
+            throw new DataAccessException("Out of order moves for game " + gameID + ": " + ex.getMessage(), ex);
+        }
+        if (storeSnapshot[0]) {
+            // the log is missing earlier moves, so store the game, which covers them, instead
+            updateChessGame(gameID, game.game);
+            return;
+        }
+        buffered();
+    }
+
+    @Override
+    public boolean finishGame(int gameID, GameData.Termination termination, ChessGame.TeamColor winner)
+            throws DataAccessException {
+        boolean finished = delegate.finishGame(gameID, termination, winner);
+        // a finished game is not played again, so the next flush drops it once it is written
+        resident.computeIfPresent(gameID, (id, game) -> game.retire());
+        return finished;
+    }
+
+    private void buffered() {
+        if (flushEvery > 0 && bufferedWrites.incrementAndGet() >= flushEvery) {
+            flushQuietly();
+        }
+    }
+
+    @Override
+    public void clear() {
+        flushLock.lock();
+        try {
+            dirty.clear();
+            pendingMoves.clear();
+            needSnapshot.clear();
+            resident.clear();
+            bufferedWrites.set(0);
+            delegate.clear();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Writes every buffered move and dirty game to the wrapped DataAccess, then drops idle
+     * games from memory. Writes that fail stay buffered and are retried on the next flush,
+     * up to MAX_WRITE_ATTEMPTS attempts in all.
+     *
+     * @throws DataAccessException the first write failure, after every game was attempted
+     */
+    public void flush() throws DataAccessException {
+        DataAccessException failure = null;
+        flushLock.lock();
+        try {
+            bufferedWrites.set(0);
+            for (Integer gameID : pendingMoves.keySet()) {
+                if (failure instanceof DatabaseBusyException) {
+                    break;
+                }
+                PendingMoves pending = pendingMoves.remove(gameID);
+                if (pending == null) {
+                    continue;
+                }
+                try {
+                    delegate.appendMoves(gameID, pending.firstPly, pending.moves);
+                    movesWritten.addAndGet(pending.moves.size());
+                } catch (DataAccessException | RuntimeException ex) {
+                    failures.incrementAndGet();
+                    if (!(ex instanceof DatabaseBusyException) && ++pending.attempts >= MAX_WRITE_ATTEMPTS) {
+                        dropMoves(gameID, pending, ex);
+                    } else {
+                        // put the batch back in front of any moves made while it was being written
+                        pendingMoves.merge(gameID, pending, (newer, failed) -> {
+                            failed.moves.addAll(newer.moves);
+                            return failed;
+                        });
+                    }
+                    if (failure == null || ex instanceof DatabaseBusyException) {
+                        failure = asFailure(ex);
+                    }
+                }
+            }
+            for (Integer gameID : dirty.keySet()) {
+                if (failure instanceof DatabaseBusyException) {
+                    break;
+                }
+                Snapshot snapshot = dirty.remove(gameID);
+                if (snapshot == null) {
+                    continue;
+                }
+                try {
+                    delegate.updateChessGame(gameID, snapshot.game);
+                    written.incrementAndGet();
+                } catch (DataAccessException | RuntimeException ex) {
+                    failures.incrementAndGet();
+                    if (ex instanceof DatabaseBusyException) {
+                        dirty.putIfAbsent(gameID, snapshot);
+                    } else if (snapshot.attempts + 1 >= MAX_WRITE_ATTEMPTS) {
+                        // the snapshot may have been covering dropped moves, so the next move stores one again
+                        needSnapshot.add(gameID);
+                        dropped.incrementAndGet();
+                        System.err.println("Dropped a snapshot of game " + gameID + " after "
+                                + MAX_WRITE_ATTEMPTS + " failed writes, the next move stores a snapshot: "
+                                + ex.getMessage());
+                    } else {
+                        // keep a newer snapshot if one arrived while this one was being written
+                        dirty.putIfAbsent(gameID, new Snapshot(snapshot.game, snapshot.attempts + 1));
+                    }
+                    if (failure == null || ex instanceof DatabaseBusyException) {
+                        failure = asFailure(ex);
+                    }
+                }
+            }
+            evictIdle();
+        } finally {
+            flushLock.unlock();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private static DataAccessException asFailure(Exception ex) {
+        return ex instanceof DataAccessException failure ? failure
+                : new DataAccessException("Unable to write game state: " + ex.getMessage(), ex);
+    }
+
+    private void dropMoves(int gameID, PendingMoves failed, Exception ex) {
+        // moves made while the batch was being written follow it, so they cannot be logged either
+        needSnapshot.add(gameID);
+        PendingMoves newer = pendingMoves.remove(gameID);
+        int count = failed.moves.size() + (newer == null ? 0 : newer.moves.size());
+        dropped.incrementAndGet();
+        System.err.println("Dropped " + count + " moves of game " + gameID + " after "
+                + MAX_WRITE_ATTEMPTS + " failed writes, the next move stores a snapshot: " + ex.getMessage());
+    }
+
+    private void evictIdle() {
+        long now = System.nanoTime();
+        for (Integer gameID : resident.keySet()) {
+            resident.computeIfPresent(gameID, (id, game) -> {
+                if (!game.retired && now - game.lastUsedNanos <= residentIdleNanos || dirty.containsKey(id)
+                        || pendingMoves.containsKey(id) || needSnapshot.contains(id)) {
+                    return game;
+                }
+                evicted.incrementAndGet();
+                return null;
+            });
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (DataAccessException | RuntimeException ex) {
+            // never let an exception escape, since that would cancel every later scheduled flush
+            System.err.println("Failed to flush game state: " + ex.getMessage());
+        }
+    }
+
+    /**
+     * Stops the background flusher and flushes every remaining dirty game.
+     */
+    @Override
+    public void close() throws DataAccessException {
+        flusher.shutdown();
+        flush();
+    }
+
+    public Stats getStats() {
+        return new Stats(resident.size(), dirty.size(), updates.get(), written.get(), movesWritten.get(),
+                failures.get(), dropped.get(), evicted.get());
+    }
+
+    private static final class Resident {
+        private final ChessGame game;
+        private volatile long lastUsedNanos = System.nanoTime();
+        private volatile boolean retired;
+
+        private Resident(ChessGame game) {
+            this.game = game;
+        }
+
+        private Resident touch() {
+            lastUsedNanos = System.nanoTime();
+            return this;
+        }
+
+        private Resident retire() {
+            retired = true;
+            return this;
+        }
+    }
+
+    private record Snapshot(ChessGame game, int attempts) {
+    }
+
+    private static final class PendingMoves {
+        private final int firstPly;
+        private final List<ChessMove> moves = new ArrayList<>();
+        private int attempts;
+
+        private PendingMoves(int firstPly) {
+            this.firstPly = firstPly;
+        }
+
+        private int nextPly() {
+            return firstPly + moves.size();
+        }
+    }
+
+    /**
+     * A snapshot of the store's counters. updates - written is the number of snapshot
+     * writes saved by coalescing, less any still pending. dropped counts writes given up
+     * after MAX_WRITE_ATTEMPTS failures and evicted counts idle games dropped from memory.
+     */
+    public record Stats(int residentGames, int dirtyGames, long updates, long written, long movesWritten,
+                        long failures, long dropped, long evicted) {
+    }
+}
@@ -1,9 +1,14 @@
 package server;
 
+import dataaccess.CachingAuthDataAccess;
+import dataaccess.CachingGameDataAccess;
 import dataaccess.DataAccess;
 import dataaccess.DataAccessException;
+import dataaccess.DatabaseManager;
+import dataaccess.LimitedDataAccess;
 import dataaccess.MemoryDataAccess;
 import dataaccess.MySqlDataAccess;
+import dataaccess.WriteBehindDataAccess;
 import io.javalin.Javalin;
 import server.handlers.WebSocketChessHandler;
 import server.handlers.*;
@@ -12,16 +17,38 @@ import service.*;
 public class Server {
 
     private final Javalin app;
-    private final DataAccess dao;
+    private final WriteBehindDataAccess dao;
+    private final WebSocketGameService wsGameService;
 
+    /**
+     * Creates a server that runs handlers on virtual threads unless the system property
+     * server.virtualThreads is false.
+     */
     public Server() {
-        this.dao = new MySqlDataAccess();
+        this(Boolean.parseBoolean(System.getProperty("server.virtualThreads", "true")));
+    }
+
+    /**
+     * @param useVirtualThreads run each HTTP request on its own virtual thread instead of
+     *                          Jetty's bounded thread pool, so requests blocked on JDBC or
+     *                          BCrypt do not hold pool threads. Database concurrency is
+     *                          bounded by a LimitedDataAccess either way.
+     */
+    public Server(boolean useVirtualThreads) {
+        DataAccess limited = new LimitedDataAccess(new MySqlDataAccess(), DatabaseManager.getLimiterMaxConcurrent(),
+                DatabaseManager.getLimiterMaxWaiting(), DatabaseManager.getLimiterAcquireTimeoutMillis());
+        DataAccess cached = new CachingGameDataAccess(new CachingAuthDataAccess(limited,
+                DatabaseManager.getAuthCacheSize(), DatabaseManager.getAuthCacheTtlMillis()),
+                DatabaseManager.getGameCacheSize(), DatabaseManager.getGameMetadataTtlMillis());
+        this.dao = new WriteBehindDataAccess(cached,
+                DatabaseManager.getGameFlushEvery(), DatabaseManager.getGameFlushLagMillis(),
+                DatabaseManager.getGameResidentIdleMillis());
 
         UserService userService = new UserService(dao);
         ClearService clearService = new ClearService(dao);
         SessionService sessionService = new SessionService(dao);
         GameService gameService = new GameService(dao);
-        WebSocketGameService wsGameService = new WebSocketGameService(dao);
+        wsGameService = new WebSocketGameService(dao);
 
         AdminHandler adminHandler = new AdminHandler(clearService,wsGameService);
         UserHandler userHandler = new UserHandler(userService);
@@ -29,7 +56,10 @@ public class Server {
         GameHandler gameHandler = new GameHandler(gameService);
         WebSocketChessHandler wsHandler = new WebSocketChessHandler(wsGameService);
 
-        app = Javalin.create(config -> config.staticFiles.add("web"));
+        app = Javalin.create(config -> {
+            config.staticFiles.add("web");
+            config.useVirtualThreads = useVirtualThreads;
+        });
 
         // HTTP endpoints
         app.post("/user", userHandler::register);
@@ -57,5 +87,11 @@ public class Server {
 
     public void stop() {
         app.stop();
+        wsGameService.shutdown();
+        try {
+            dao.close();
+        } catch (DataAccessException ex) {
+            System.err.println("Failed to save game state on shutdown: " + ex.getMessage());
+        }
     }
 }
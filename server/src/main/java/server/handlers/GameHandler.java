@@ -1,16 +1,22 @@
 package server.handlers;
 
 import chess.model.data.GameData;
+import chess.model.request.GameListRequest;
 import chess.model.request.GameRequest;
 import chess.model.request.JoinGameRequest;
 import chess.model.result.GameListResult;
 import chess.model.result.GameResult;
 import chess.model.result.JoinGameResult;
 import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
 import dataaccess.UnauthorizedException;
 import io.javalin.http.Context;
 import service.GameService;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
 
 public class GameHandler {
@@ -23,7 +29,7 @@ public class GameHandler {
         this.gson = new Gson(); // initialize Gson
     }
 
-    // GET /game
+    // GET /game?cursor=&limit=&open=&player=&status=
     public void listGames(Context ctx) {
         String authToken = ctx.header("authorization");
         if (authToken == null || authToken.isEmpty()) {
@@ -31,16 +37,25 @@ public class GameHandler {
             return;
         }
 
+        GameListRequest request;
         try {
-            GameListResult gameList = gameService.listGames(authToken);
+            request = parseListRequest(ctx);
+        } catch (IllegalArgumentException e) {
+            ctx.status(400).result(gson.toJson(Map.of("message", "Error: bad request")));
+            return;
+        }
+
+        try {
+            GameListResult gameList = gameService.listGames(authToken, request);
 
             if (gameList.isSuccess()) {
-                ctx.status(gameList.isSuccess() ? 200 : 400)
-                        .result(gson.toJson(gameList));
+                writeGameList(ctx, gameList);
             } else {
                 String message = gameList.getMessage() != null ? gameList.getMessage() : "Internal error";
                 if (message.contains("unauthorized")) {
                     ctx.status(401).result(gson.toJson(Map.of("message", "Error: unauthorized")));
+                } else if (message.contains("bad request")) {
+                    ctx.status(400).result(gson.toJson(Map.of("message", "Error: bad request")));
                 } else {
                     ctx.status(500).result(gson.toJson(Map.of("message", "Error: " + message)));
                 }
@@ -50,6 +65,39 @@ public class GameHandler {
         }
     }
 
+    /**
+     * Encodes a page of games straight to the response rather than into one String first.
+     */
+    private void writeGameList(Context ctx, GameListResult gameList) throws IOException {
+        ctx.status(200);
+        try (JsonWriter json = gson.newJsonWriter(new BufferedWriter(
+                new OutputStreamWriter(ctx.outputStream(), StandardCharsets.UTF_8)))) {
+            gson.toJson(gameList, GameListResult.class, json);
+        }
+    }
+
+    private static GameListRequest parseListRequest(Context ctx) {
+        GameListRequest request = new GameListRequest();
+        request.setCursor(ctx.queryParam("cursor"));
+        String limit = ctx.queryParam("limit");
+        if (limit != null) {
+            request.setLimit(Integer.parseInt(limit));
+        }
+        String open = ctx.queryParam("open");
+        if (open != null) {
+            if (!open.equals("true") && !open.equals("false")) {
+                throw new IllegalArgumentException("open must be true or false");
+            }
+            request.setOpenSeats(Boolean.parseBoolean(open));
+        }
+        request.setPlayer(ctx.queryParam("player"));
+        String status = ctx.queryParam("status");
+        if (status != null) {
+            request.setStatus(GameListRequest.Status.valueOf(status.toUpperCase()));
+        }
+        return request;
+    }
+
 
     public void createGame(Context ctx) {
         String authToken = ctx.header("authorization");
@@ -2,50 +2,74 @@ package service;
 
 import com.google.gson.Gson;
 import io.javalin.websocket.WsMessageContext;
+import websocket.messages.LoadGameMessage;
+import websocket.messages.MoveDeltaMessage;
 import websocket.messages.ServerMessage;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
-class ConnectionManager {
+/**
+ * The sessions connected to one game. Safe to use from any thread: joins, leaves and
+ * broadcasts may run concurrently, and a broadcast sends to the sessions present when
+ * it reaches them.
+ */
+public class ConnectionManager {
 
-    private final Map<String, WsMessageContext> sessions = new HashMap<>();
+    private record Connection(WsMessageContext ctx, boolean acceptsMoveDeltas) {
+    }
+
+    private final Map<String, Connection> sessions = new ConcurrentHashMap<>();
 
-    void addPlayer(String username, WsMessageContext ctx) {
-        sessions.put(username, ctx);
+    public void addPlayer(String username, WsMessageContext ctx, boolean acceptsMoveDeltas) {
+        sessions.put(username, new Connection(ctx, acceptsMoveDeltas));
     }
 
-    void removePlayer(String username) {
+    public void removePlayer(String username) {
         sessions.remove(username);
     }
 
-    void broadcastToAll(ServerMessage msg, Gson gson) {
-        String json = gson.toJson(msg);
-        var it = sessions.entrySet().iterator();
-        while (it.hasNext()) {
-            var entry = it.next();
-            try {
-                entry.getValue().send(json);
-            } catch (Exception e) {
-                // channel is dead; drop this session
-                it.remove();
+    /**
+     * Sends a move to everyone: the delta to clients that take deltas and the full game to
+     * the rest. Each message is serialized once; each session encodes the text itself.
+     */
+    public void broadcastMove(LoadGameMessage full, MoveDeltaMessage delta, Gson gson) {
+        String fullJson = null;
+        String deltaJson = null;
+        for (var entry : sessions.entrySet()) {
+            Connection connection = entry.getValue();
+            String json;
+            if (connection.acceptsMoveDeltas()) {
+                json = deltaJson != null ? deltaJson : (deltaJson = gson.toJson(delta));
+            } else {
+                json = fullJson != null ? fullJson : (fullJson = gson.toJson(full));
             }
+            send(entry.getKey(), connection, json);
         }
     }
 
-    void broadcastToOthers(String exceptUsername, ServerMessage msg, Gson gson) {
+    public void broadcastToAll(ServerMessage msg, Gson gson) {
+        broadcastToOthers(null, msg, gson);
+    }
+
+    /**
+     * Sends msg to every session except exceptUsername's (or to all when it is null).
+     */
+    public void broadcastToOthers(String exceptUsername, ServerMessage msg, Gson gson) {
         String json = gson.toJson(msg);
-        var it = sessions.entrySet().iterator();
-        while (it.hasNext()) {
-            var entry = it.next();
-            if (entry.getKey().equals(exceptUsername)) {
-                continue;
-            }
-            try {
-                entry.getValue().send(json);
-            } catch (Exception e) {
-                it.remove();
+        for (var entry : sessions.entrySet()) {
+            if (!entry.getKey().equals(exceptUsername)) {
+                send(entry.getKey(), entry.getValue(), json);
             }
         }
     }
-}//end of class
\ No newline at end of file
+
+    private void send(String username, Connection connection, String json) {
+        try {
+            connection.ctx().send(json);
+        } catch (Exception e) {
+            // channel is dead; drop this session unless the user has reconnected meanwhile
+            sessions.remove(username, connection);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package service;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs each game's commands one at a time, in the order they were submitted, while
+ * different games run in parallel.
+ * <p>
+ * Every game has a queue drained by at most one virtual thread at a time. A drain is
+ * started when a task lands in an idle queue, and a queue that has been drained is
+ * dropped, so an idle game costs nothing.
+ */
+class GameMailboxes {
+
+    private final Map<Integer, Mailbox> mailboxes = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final class Mailbox implements Runnable {
+        private final int gameId;
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        Mailbox(int gameId) {
+            this.gameId = gameId;
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                executor.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            Runnable task;
+            while ((task = tasks.poll()) != null) {
+                try {
+                    task.run();
+                } catch (Throwable ex) {
+                    // one bad command must not stall the commands queued behind it
+                    System.err.println("Game command failed: " + ex);
+                }
+            }
+            draining.set(false);
+            // a task may have arrived after the last poll but before the flag was cleared
+            if (!tasks.isEmpty()) {
+                scheduleDrain();
+                return;
+            }
+            // tasks are only added while the map holds this mailbox, so once it is removed
+            // here every later task goes to a new mailbox and nothing is left behind
+            mailboxes.computeIfPresent(gameId,
+                    (id, mailbox) -> mailbox == this && tasks.isEmpty() && !draining.get() ? null : mailbox);
+        }
+    }
+
+    /**
+     * Queues task behind the game's earlier tasks.
+     */
+    void submit(int gameId, Runnable task) {
+        Mailbox mailbox = mailboxes.compute(gameId, (id, current) -> {
+            Mailbox target = current != null ? current : new Mailbox(id);
+            target.tasks.add(task);
+            return target;
+        });
+        mailbox.scheduleDrain();
+    }
+
+    /**
+     * @return how many games have queued or running tasks
+     */
+    int activeGames() {
+        return mailboxes.size();
+    }
+
+    /**
+     * Stops accepting tasks and waits briefly for queued ones to finish.
+     */
+    void shutdown() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
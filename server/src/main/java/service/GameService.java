@@ -2,6 +2,7 @@ package service;
 
 import chess.ChessGame;
 import chess.model.data.GameData;
+import chess.model.request.GameListRequest;
 import chess.model.request.GameRequest;
 import chess.model.result.GameListResult;
 import chess.model.result.GameResult;
@@ -12,6 +13,9 @@ import java.util.List;
 
 public class GameService {
 
+    static final int DEFAULT_PAGE_SIZE = 100;
+    static final int MAX_PAGE_SIZE = 500;
+
     private final DataAccess dataAccess;
 
     public GameService(DataAccess dataAccess) {
@@ -40,6 +44,14 @@ public class GameService {
 
 
     public GameListResult listGames(String authToken) throws Exception {
+        return listGames(authToken, new GameListRequest());
+    }
+
+    /**
+     * Lists one page of games. The cursor is the ID of the last game on the previous
+     * page; a limit of 0 means DEFAULT_PAGE_SIZE.
+     */
+    public GameListResult listGames(String authToken, GameListRequest request) throws Exception {
         if (authToken == null || authToken.isEmpty()) {
             return GameListResult.failure("Error: unauthorized");
         }
@@ -49,9 +61,27 @@ public class GameService {
             return GameListResult.failure("Error: unauthorized");
         }
 
-        List<GameData> allGames = dataAccess.listGames();
+        int afterGameID = 0;
+        if (request.getCursor() != null) {
+            try {
+                afterGameID = Integer.parseInt(request.getCursor());
+            } catch (NumberFormatException ex) {
+                return GameListResult.failure("Error: bad request");
+            }
+        }
+        if (request.getLimit() < 0) {
+            return GameListResult.failure("Error: bad request");
+        }
+        int limit = request.getLimit() == 0 ? DEFAULT_PAGE_SIZE : Math.min(request.getLimit(), MAX_PAGE_SIZE);
 
-        return GameListResult.success(allGames);
+        // ask for one game more than the page holds to learn whether another page follows
+        List<GameData> page = dataAccess.listGames(afterGameID, limit + 1, request);
+        boolean more = page.size() > limit;
+        if (more) {
+            page = page.subList(0, limit);
+        }
+        String nextCursor = more ? String.valueOf(page.get(limit - 1).getGameId()) : null;
+        return GameListResult.success(page, nextCursor);
     }
 
 
@@ -2,6 +2,7 @@ package service;
 
 import chess.ChessGame;
 import chess.ChessPosition;
+import chess.GameStatus;
 import chess.InvalidMoveException;
 import chess.model.data.GameData;
 import com.google.gson.Gson;
@@ -10,33 +11,59 @@ import io.javalin.websocket.WsMessageContext;
 import websocket.commands.*;
 import websocket.messages.*;
 
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class WebSocketGameService {
 
+    private static final int SNAPSHOT_EVERY_PLIES = 20;
+
     private final Gson gson = new Gson();
-    private final Map<Integer, ConnectionManager> connections = new HashMap<>();
-    private final Map<Integer, Boolean> gameOver = new HashMap<>();
+    // per-game state lives in concurrent maps, so commands for different games never contend
+    private final Map<Integer, ConnectionManager> connections = new ConcurrentHashMap<>();
+    private final GameMailboxes mailboxes = new GameMailboxes();
     private final DataAccess dataAccess;
 
     public WebSocketGameService(DataAccess dataAccess) {
         this.dataAccess = dataAccess;
     }
 
+    /**
+     * Finishes queued commands and stops accepting new ones.
+     */
+    public void shutdown() {
+        mailboxes.shutdown();
+    }
+
     public void clearState() {
-        gameOver.clear();
         connections.clear();
     }
 
 
+    /**
+     * Queues a command on its game's mailbox, so each game's commands run one at a time
+     * in arrival order, off the Jetty thread, while different games run in parallel.
+     */
     public void handleMessage(WsMessageContext wsCtx) {
-        int gameId = -1;
+        String json = wsCtx.message();
+        UserGameCommand base;
+        try {
+            base = gson.fromJson(json, UserGameCommand.class);
+            if (base == null || base.getGameID() == null || base.getCommandType() == null) {
+                throw new Exception("bad request");
+            }
+        } catch (Exception ex) {
+            sendMessage(wsCtx, -1, new ErrorMessage("Error: " + ex.getMessage()));
+            return;
+        }
+        mailboxes.submit(base.getGameID(), () -> runCommand(wsCtx, json, base));
+    }
+
+    private void runCommand(WsMessageContext wsCtx, String json, UserGameCommand base) {
+        int gameId = base.getGameID();
 
         try {
-            String json = wsCtx.message();
-            UserGameCommand base = gson.fromJson(json, UserGameCommand.class);
-            gameId = base.getGameID();
             String username = getUsername(base.getAuthString());
 
             switch (base.getCommandType()) {
@@ -56,6 +83,10 @@ public class WebSocketGameService {
                     ResignCommand cmd = gson.fromJson(json, ResignCommand.class);
                     resign(wsCtx, username, cmd);
                 }
+                case RESYNC -> {
+                    ResyncCommand cmd = gson.fromJson(json, ResyncCommand.class);
+                    resync(wsCtx, cmd);
+                }
             }
 
         } catch (Exception ex) {
@@ -93,7 +124,7 @@ public class WebSocketGameService {
         ChessGame game = dataAccess.getChessGame(gameId);
 
         ConnectionManager manager = getConnectionManager(gameId);
-        manager.addPlayer(username, ctx);
+        manager.addPlayer(username, ctx, command.acceptsMoveDeltas());
 
         sendMessage(ctx, gameId, new LoadGameMessage(game));
 
@@ -108,6 +139,16 @@ public class WebSocketGameService {
         manager.broadcastToOthers(username, new NotificationMessage(noteText), gson);
     }
 
+    private void resync(WsMessageContext ctx, ResyncCommand command) throws Exception {
+        int gameId = command.getGameID();
+        if (dataAccess.getGameData(gameId) == null) {
+            sendMessage(ctx, gameId, new ErrorMessage("Error: bad request"));
+            return;
+        }
+        ChessGame game = dataAccess.getChessGame(gameId);
+        sendMessage(ctx, gameId, new LoadGameMessage(game));
+    }
+
     private String formatSquare(ChessPosition pos) {
         char file = (char) ('a' + pos.getColumn() - 1); // 1→'a'
         char rank = (char) ('0' + pos.getRow());        // 1→'1'
@@ -120,14 +161,14 @@ public class WebSocketGameService {
         try {
             GameData gameData = dataAccess.getGameData(gameId);
 
-            if (Boolean.TRUE.equals(gameOver.get(gameId))) {
-                sendMessage(ctx, gameId, new ErrorMessage("Game already over"));
-                return;
-            }
             if (gameData == null) {
                 sendMessage(ctx, gameId, new ErrorMessage("Bad request"));
                 return;
             }
+            if (gameData.isGameOver()) {
+                sendMessage(ctx, gameId, new ErrorMessage("Game already over"));
+                return;
+            }
 
             // Determine the color this user is allowed to move
             ChessGame.TeamColor playerColor = null;
@@ -140,8 +181,9 @@ public class WebSocketGameService {
                 return;
             }
 
+            // the data access may hand out the same resident game to every command; this is
+            // safe because the game's mailbox runs its commands one at a time
             ChessGame game = dataAccess.getChessGame(gameId);
-
             if (game.getTeamTurn() != playerColor) {
                 sendMessage(ctx, gameId, new ErrorMessage("Not your turn"));
                 return;
@@ -154,11 +196,14 @@ public class WebSocketGameService {
                 return;
             }
 
-            dataAccess.updateChessGame(gameId, game);
+            // log the move, and store a full snapshot now and then to bound replay on load
+            dataAccess.appendMoves(gameId, game.getPly(), List.of(move));
+            if (game.getPly() % SNAPSHOT_EVERY_PLIES == 0) {
+                dataAccess.updateChessGame(gameId, game);
+            }
 
             ConnectionManager manager = getConnectionManager(gameId);
-            LoadGameMessage load = new LoadGameMessage(game);
-            manager.broadcastToAll(load, gson);
+            manager.broadcastMove(new LoadGameMessage(game), MoveDeltaMessage.of(game, move), gson);
 
             String from = formatSquare(move.getStartPosition());
             String to   = formatSquare(move.getEndPosition());
@@ -167,20 +212,27 @@ public class WebSocketGameService {
             manager.broadcastToOthers(username, moveNote, gson);
 
 
-            ChessGame.TeamColor opponent =
-                    (playerColor == ChessGame.TeamColor.WHITE)
-                            ? ChessGame.TeamColor.BLACK
-                            : ChessGame.TeamColor.WHITE;
+            ChessGame.TeamColor opponent = playerColor.opponent();
+            GameStatus status = game.getGameStatus(opponent);
 
-            if (game.isInCheckmate(opponent)) {
-                manager.broadcastToAll(
+            switch (status.getState()) {
+                case CHECKMATE -> manager.broadcastToAll(
                         new NotificationMessage("Checkmate against " + opponent), gson);
-            } else if (game.isInCheck(opponent)) {
-                manager.broadcastToAll(
+                case CHECK -> manager.broadcastToAll(
                         new NotificationMessage("Check against " + opponent), gson);
-            } else if (game.isInStalemate(opponent)) {
-                manager.broadcastToAll(
+                case STALEMATE -> manager.broadcastToAll(
                         new NotificationMessage("Stalemate for " + opponent), gson);
+                case PLAYING -> {
+                }
+            }
+
+            // record the result, so later moves are refused without evaluating the position again;
+            // this runs after the broadcasts so every message about the move goes out together
+            switch (status.getState()) {
+                case CHECKMATE -> dataAccess.finishGame(gameId, GameData.Termination.CHECKMATE, playerColor);
+                case STALEMATE -> dataAccess.finishGame(gameId, GameData.Termination.STALEMATE, null);
+                default -> {
+                }
             }
 
         } catch (Exception ex) {
@@ -238,12 +290,16 @@ public class WebSocketGameService {
                 return;
             }
 
-            // Only block *second* (or later) resigns
-            if (Boolean.TRUE.equals(gameOver.get(gameId))) {
+            // Only block *second* (or later) resigns; the game's mailbox runs one command at a time
+            if (gameData.isGameOver()) {
+                sendMessage(ctx, gameId, new ErrorMessage("Game already over"));
+                return;
+            }
+            ChessGame.TeamColor winner = isWhite ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+            if (!dataAccess.finishGame(gameId, GameData.Termination.RESIGNATION, winner)) {
                 sendMessage(ctx, gameId, new ErrorMessage("Game already over"));
                 return;
             }
-            gameOver.put(gameId, true);
 
             ConnectionManager manager = connections.get(gameId);
             if (manager != null) {
@@ -1,13 +1,22 @@
 package dataaccess;
 
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
 import chess.model.data.GameData;
+import chess.model.request.GameListRequest;
 import chess.model.request.RegisterRequest;
 import chess.model.request.SessionRequest;
 import chess.model.result.RegisterResult;
 import chess.model.result.SessionResult;
+import com.google.gson.Gson;
 import org.junit.jupiter.api.*;
 
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -191,4 +200,446 @@ public class UnitTests {
         assertThrows(DataAccessException.class, () -> dao.updateGame(nonexistentGame));
     }
 
+    @Test
+    @Order(19)
+    void connectionPoolReusesConnections() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            dao.listGames();
+        }
+        ConnectionPool.Stats stats = DatabaseManager.getPoolStats();
+        assertEquals(0, stats.active(), "Every borrowed connection should have been returned");
+        assertTrue(stats.totalCreated() < stats.totalAcquired(), "Connections should be reused");
+        assertTrue(stats.open() <= stats.maxSize());
+    }
+
+    @Test
+    @Order(20)
+    void writeBehindCoalescesGameWrites() throws Exception {
+        String token = dao.registerUser(new RegisterRequest("carol", "pw", "carol@example.com")).getAuthToken();
+        int gameId = dao.createGame(new GameData(0, "Write Behind", null, null), token).getGameId();
+
+        WriteBehindDataAccess store = new WriteBehindDataAccess(dao, 0, 60_000, 60_000);
+        try {
+            ChessGame game = store.getChessGame(gameId);
+            assertSame(game, store.getChessGame(gameId), "Loaded games should stay resident");
+
+            game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+            store.updateChessGame(gameId, game);
+            game.makeMove(new ChessMove(new ChessPosition(7, 5), new ChessPosition(5, 5), null));
+            store.updateChessGame(gameId, game);
+            assertEquals(new ChessGame(), dao.getChessGame(gameId), "Nothing should be written before a flush");
+
+            store.flush();
+            assertEquals(game, dao.getChessGame(gameId));
+            WriteBehindDataAccess.Stats stats = store.getStats();
+            assertEquals(2, stats.updates());
+            assertEquals(1, stats.written(), "Both moves should be saved in one write");
+            assertEquals(0, stats.dirtyGames());
+        } finally {
+            store.close();
+        }
+    }
+
+    @Test
+    @Order(21)
+    void legacyJsonGameStateIsMigrated() throws Exception {
+        String token = dao.registerUser(new RegisterRequest("dave", "pw", "dave@example.com")).getAuthToken();
+        int gameId = dao.createGame(new GameData(0, "Legacy", null, null), token).getGameId();
+
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(2, 4), new ChessPosition(4, 4), null));
+        try (var conn = DatabaseManager.getConnection();
+             var stmt = conn.prepareStatement(
+                     "UPDATE games SET game_state = ?, game_state_bin = NULL WHERE gameID = ?")) {
+            stmt.setString(1, new Gson().toJson(game));
+            stmt.setInt(2, gameId);
+            stmt.executeUpdate();
+        }
+
+        // an up to date schema is not scanned again
+        new MySqlDataAccess();
+        try (var conn = DatabaseManager.getConnection();
+             var stmt = conn.prepareStatement("SELECT game_state FROM games WHERE gameID = ?")) {
+            stmt.setInt(1, gameId);
+            try (var rs = stmt.executeQuery()) {
+                assertTrue(rs.next());
+                assertNotNull(rs.getString("game_state"), "A current schema should not be migrated");
+            }
+        }
+
+        try (var conn = DatabaseManager.getConnection();
+             var stmt = conn.prepareStatement("DELETE FROM schema_version")) {
+            stmt.executeUpdate();
+        }
+        MySqlDataAccess migrated = new MySqlDataAccess();
+        assertEquals(game, migrated.getChessGame(gameId));
+    }
+
+    @Test
+    @Order(22)
+    void gameIsRebuiltFromSnapshotAndMoveLog() throws Exception {
+        String token = dao.registerUser(new RegisterRequest("erin", "pw", "erin@example.com")).getAuthToken();
+        int gameId = dao.createGame(new GameData(0, "Move Log", null, null), token).getGameId();
+
+        List<ChessMove> moves = List.of(
+                new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null),
+                new ChessMove(new ChessPosition(7, 5), new ChessPosition(5, 5), null),
+                new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null));
+        ChessGame game = new ChessGame();
+        for (ChessMove move : moves.subList(0, 2)) {
+            game.makeMove(move);
+        }
+        dao.appendMoves(gameId, 1, moves.subList(0, 2));
+        assertEquals(game, dao.getChessGame(gameId), "Moves should replay without a snapshot");
+
+        dao.updateChessGame(gameId, game);
+        game.makeMove(moves.get(2));
+        dao.appendMoves(gameId, 3, moves.subList(2, 3));
+
+        ChessGame loaded = dao.getChessGame(gameId);
+        assertEquals(game, loaded);
+        assertEquals(3, loaded.getPly());
+        assertThrows(DataAccessException.class, () -> dao.appendMoves(gameId, 3, moves.subList(2, 3)),
+                "A ply can only be logged once");
+    }
+
+    @Test
+    @Order(23)
+    void limiterTurnsAwayCallsBeyondItsBounds() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        DataAccess slow = new ForwardingDataAccess(new MemoryDataAccess()) {
+            @Override
+            public List<GameData> listGames() throws DataAccessException {
+                entered.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.listGames();
+            }
+        };
+        LimitedDataAccess limited = new LimitedDataAccess(slow, 1, 0, 50);
+
+        // a failure inside the holder surfaces through get on this thread
+        FutureTask<List<GameData>> holder = new FutureTask<>(limited::listGames);
+        Thread.ofVirtual().start(holder);
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        assertThrows(DataAccessException.class, limited::listGames, "No room to wait should fail fast");
+        assertEquals(1, limited.getStats().rejected());
+
+        release.countDown();
+        assertNotNull(holder.get(5, TimeUnit.SECONDS), "The call holding the permit should succeed");
+        assertNotNull(limited.listGames(), "The permit should be returned once the call finishes");
+    }
+
+    @Test
+    @Order(24)
+    void authCacheAnswersRepeatLookupsAndForgetsInvalidatedTokens() throws Exception {
+        CachingAuthDataAccess cached = new CachingAuthDataAccess(new MemoryDataAccess(), 2, 60_000);
+        String token = cached.registerUser(new RegisterRequest("frank", "pw", "frank@example.com")).getAuthToken();
+
+        assertEquals("frank", cached.getUsernameByToken(token));
+        assertEquals("frank", cached.getUsernameByToken(token));
+        assertEquals(0, cached.getStats().misses(), "A freshly issued token should already be cached");
+
+        assertTrue(cached.invalidateToken(token));
+        assertNull(cached.getUsernameByToken(token));
+        assertNull(cached.getUsernameByToken("no-such-token"));
+
+        String gina = cached.registerUser(new RegisterRequest("gina", "pw", "gina@example.com")).getAuthToken();
+        cached.registerUser(new RegisterRequest("hank", "pw", "hank@example.com"));
+        assertEquals("gina", cached.getUsernameByToken(gina));
+        cached.registerUser(new RegisterRequest("ivy", "pw", "ivy@example.com"));
+        assertEquals(2, cached.getStats().size(), "The cache should stay within its bound");
+
+        long misses = cached.getStats().misses();
+        assertEquals("gina", cached.getUsernameByToken(gina));
+        assertEquals(misses, cached.getStats().misses(), "The least recently used token should go first");
+    }
+
+    @Test
+    @Order(25)
+    void gameDataCacheStaysCoherentWithUpdates() throws Exception {
+        CachingGameDataAccess cached = new CachingGameDataAccess(new MemoryDataAccess(), 2, 60_000);
+        int gameId = cached.createGame(new GameData(0, "Cached", null, null), null).getGameId();
+
+        GameData stale = cached.getGameData(gameId);
+        GameData joined = cached.getGameData(gameId);
+        joined.setWhiteUsername("alice");
+        assertNull(cached.getGameData(gameId).getWhiteUsername(), "Callers should get copies");
+        cached.updateGame(joined);
+        assertEquals("alice", cached.getGameData(gameId).getWhiteUsername());
+
+        GameData over = cached.getGameData(gameId);
+        over.finish(GameData.Termination.RESIGNATION, ChessGame.TeamColor.WHITE);
+        cached.updateGame(over);
+        stale.setBlackUsername("bob");
+        cached.updateGame(stale);
+        assertTrue(cached.getGameData(gameId).isGameOver(), "An older copy must not reopen a finished game");
+        assertEquals("bob", cached.getGameData(gameId).getBlackUsername());
+        assertEquals(0, cached.getStats().size(), "Finished games should not be cached");
+
+        int second = cached.createGame(new GameData(0, "Second", null, null), null).getGameId();
+        int third = cached.createGame(new GameData(0, "Third", null, null), null).getGameId();
+        cached.getGameData(second);
+        cached.createGame(new GameData(0, "Fourth", null, null), null);
+        assertEquals(2, cached.getStats().size(), "The cache should stay within its bound");
+        long misses = cached.getStats().misses();
+        cached.getGameData(second);
+        assertEquals(misses, cached.getStats().misses(), "The least recently used game should go first");
+        cached.getGameData(third);
+        assertEquals(misses + 1, cached.getStats().misses());
+    }
+
+    @Test
+    @Order(26)
+    void gameResultIsStoredAndFinal() throws Exception {
+        String token = dao.registerUser(new RegisterRequest("jill", "pw", "jill@example.com")).getAuthToken();
+        int gameId = dao.createGame(new GameData(0, "Result", null, null), token).getGameId();
+        GameData before = dao.getGameData(gameId);
+        assertFalse(before.isGameOver());
+
+        GameData mated = dao.getGameData(gameId);
+        mated.finish(GameData.Termination.CHECKMATE, ChessGame.TeamColor.BLACK);
+        dao.updateGame(mated);
+        before.setWhiteUsername("jill");
+        dao.updateGame(before);
+
+        GameData stored = dao.getGameData(gameId);
+        assertEquals(GameData.Termination.CHECKMATE, stored.getTermination());
+        assertEquals(ChessGame.TeamColor.BLACK, stored.getWinner());
+        assertEquals("jill", stored.getWhiteUsername());
+        assertTrue(dao.listGames().stream().anyMatch(game -> game.getGameId() == gameId && game.isGameOver()));
+    }
+
+    @Test
+    @Order(27)
+    void listGamesFiltersAndPages() throws Exception {
+        GameListRequest finished = new GameListRequest();
+        finished.setPlayer("jill");
+        finished.setStatus(GameListRequest.Status.FINISHED);
+        List<GameData> jills = dao.listGames(0, 10, finished);
+        assertEquals(List.of("Result"), jills.stream().map(GameData::getGameName).toList());
+
+        finished.setStatus(GameListRequest.Status.ACTIVE);
+        assertTrue(dao.listGames(0, 10, finished).isEmpty());
+
+        List<GameData> all = dao.listGames();
+        List<GameData> first = dao.listGames(0, 1, new GameListRequest());
+        assertEquals(1, first.size());
+        List<GameData> rest = dao.listGames(first.get(0).getGameId(), all.size(), new GameListRequest());
+        assertEquals(all.size() - 1, rest.size());
+    }
+
+    @Test
+    @Order(28)
+    void writeBehindDropsMovesThatKeepFailing() throws Exception {
+        String token = dao.registerUser(new RegisterRequest("kate", "pw", "kate@example.com")).getAuthToken();
+        int gameId = dao.createGame(new GameData(0, "Poison", null, null), token).getGameId();
+        DataAccess failingLog = new ForwardingDataAccess(dao) {
+            @Override
+            public void appendMoves(int gameID, int firstPly, List<ChessMove> moves) throws DataAccessException {
+                throw new DataAccessException("log unavailable");
+            }
+        };
+
+        WriteBehindDataAccess store = new WriteBehindDataAccess(failingLog, 1, 60_000, 60_000);
+        try {
+            ChessGame game = store.getChessGame(gameId);
+            ChessMove first = new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null);
+            game.makeMove(first);
+            store.appendMoves(gameId, game.getPly(), List.of(first));
+            for (int i = 1; i < WriteBehindDataAccess.MAX_WRITE_ATTEMPTS; i++) {
+                assertThrows(DataAccessException.class, store::flush);
+            }
+            assertEquals(1, store.getStats().dropped(), "The batch should be given up after its last attempt");
+            assertEquals(WriteBehindDataAccess.MAX_WRITE_ATTEMPTS, store.getStats().failures());
+
+            ChessMove second = new ChessMove(new ChessPosition(7, 5), new ChessPosition(5, 5), null);
+            game.makeMove(second);
+            store.appendMoves(gameId, game.getPly(), List.of(second));
+            assertEquals(game, dao.getChessGame(gameId), "The next move should store a snapshot covering both");
+        } finally {
+            store.close();
+        }
+    }
+
+    @Test
+    @Order(29)
+    void writeBehindEvictsIdleGames() throws Exception {
+        String token = dao.registerUser(new RegisterRequest("liam", "pw", "liam@example.com")).getAuthToken();
+        int gameId = dao.createGame(new GameData(0, "Idle", null, null), token).getGameId();
+
+        WriteBehindDataAccess store = new WriteBehindDataAccess(dao, 0, 60_000, 1);
+        try {
+            ChessGame game = store.getChessGame(gameId);
+            game.makeMove(new ChessMove(new ChessPosition(2, 4), new ChessPosition(4, 4), null));
+            store.updateChessGame(gameId, game);
+            Thread.sleep(5);
+            store.flush();
+            assertEquals(0, store.getStats().residentGames(), "An idle game should be dropped once it is written");
+            assertEquals(1, store.getStats().evicted());
+            ChessGame reloaded = store.getChessGame(gameId);
+            assertNotSame(game, reloaded);
+            assertEquals(game, reloaded);
+        } finally {
+            store.close();
+        }
+    }
+
+    @Test
+    @Order(30)
+    void finishGameRecordsOnlyTheResult() throws Exception {
+        String token = dao.registerUser(new RegisterRequest("mona", "pw", "mona@example.com")).getAuthToken();
+        dao.registerUser(new RegisterRequest("ned", "pw", "ned@example.com"));
+        int gameId = dao.createGame(new GameData(0, "Finish", "mona", null), token).getGameId();
+
+        GameData joined = dao.getGameData(gameId);
+        joined.setBlackUsername("ned");
+        dao.updateGame(joined);
+        assertTrue(dao.finishGame(gameId, GameData.Termination.RESIGNATION, ChessGame.TeamColor.BLACK));
+        assertFalse(dao.finishGame(gameId, GameData.Termination.CHECKMATE, ChessGame.TeamColor.WHITE),
+                "A game that has a result keeps it");
+
+        GameData stored = dao.getGameData(gameId);
+        assertEquals("ned", stored.getBlackUsername(), "Finishing must not undo a join made since the game was read");
+        assertEquals(GameData.Termination.RESIGNATION, stored.getTermination());
+        assertEquals(ChessGame.TeamColor.BLACK, stored.getWinner());
+        assertThrows(DataAccessException.class,
+                () -> dao.finishGame(Integer.MAX_VALUE, GameData.Termination.STALEMATE, null));
+    }
+
+    @Test
+    @Order(31)
+    void writeBehindRetriesACoveringSnapshotThatWasDropped() throws Exception {
+        String token = dao.registerUser(new RegisterRequest("olga", "pw", "olga@example.com")).getAuthToken();
+        int gameId = dao.createGame(new GameData(0, "Covered", null, null), token).getGameId();
+        AtomicInteger logFailures = new AtomicInteger(WriteBehindDataAccess.MAX_WRITE_ATTEMPTS);
+        AtomicInteger snapshotFailures = new AtomicInteger(WriteBehindDataAccess.MAX_WRITE_ATTEMPTS);
+        DataAccess flaky = new ForwardingDataAccess(dao) {
+            @Override
+            public void appendMoves(int gameID, int firstPly, List<ChessMove> moves) throws DataAccessException {
+                if (logFailures.getAndDecrement() > 0) {
+                    throw new DataAccessException("log unavailable");
+                }
+                super.appendMoves(gameID, firstPly, moves);
+            }
+
+            @Override
+            public void updateChessGame(int gameID, ChessGame game) throws DataAccessException {
+                if (snapshotFailures.getAndDecrement() > 0) {
+                    throw new IllegalStateException("encoder broken");
+                }
+                super.updateChessGame(gameID, game);
+            }
+        };
+
+        WriteBehindDataAccess store = new WriteBehindDataAccess(flaky, 1, 60_000, 60_000);
+        try {
+            ChessGame game = store.getChessGame(gameId);
+            List<ChessMove> moves = List.of(
+                    new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null),
+                    new ChessMove(new ChessPosition(7, 5), new ChessPosition(5, 5), null),
+                    new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null));
+            // the first move is dropped from the log, then the snapshot covering it is dropped too
+            for (int i = 0; i < 2; i++) {
+                game.makeMove(moves.get(i));
+                store.appendMoves(gameId, game.getPly(), List.of(moves.get(i)));
+                for (int attempt = 1; attempt < WriteBehindDataAccess.MAX_WRITE_ATTEMPTS; attempt++) {
+                    assertThrows(DataAccessException.class, store::flush);
+                }
+            }
+            assertEquals(2, store.getStats().dropped());
+
+            game.makeMove(moves.get(2));
+            store.appendMoves(gameId, game.getPly(), List.of(moves.get(2)));
+            assertEquals(game, dao.getChessGame(gameId), "The game should load without a gap in its log");
+        } finally {
+            store.close();
+        }
+    }
+
+    @Test
+    @Order(32)
+    void writeBehindKeepsWritesTheLimiterTurnsAway() throws Exception {
+        String token = dao.registerUser(new RegisterRequest("pia", "pw", "pia@example.com")).getAuthToken();
+        int gameId = dao.createGame(new GameData(0, "Busy", null, null), token).getGameId();
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        DataAccess slow = new ForwardingDataAccess(dao) {
+            @Override
+            public List<GameData> listGames() throws DataAccessException {
+                entered.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.listGames();
+            }
+        };
+        LimitedDataAccess limited = new LimitedDataAccess(slow, 1, 0, 50);
+        WriteBehindDataAccess store = new WriteBehindDataAccess(limited, 1, 60_000, 60_000);
+        try {
+            ChessGame game = store.getChessGame(gameId);
+            FutureTask<List<GameData>> holder = new FutureTask<>(limited::listGames);
+            Thread.ofVirtual().start(holder);
+            assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+            ChessMove move = new ChessMove(new ChessPosition(2, 4), new ChessPosition(4, 4), null);
+            game.makeMove(move);
+            store.appendMoves(gameId, game.getPly(), List.of(move));
+            for (int attempt = 0; attempt < WriteBehindDataAccess.MAX_WRITE_ATTEMPTS * 2; attempt++) {
+                assertThrows(DatabaseBusyException.class, store::flush);
+            }
+            assertEquals(0, store.getStats().dropped(), "Being turned away should not use up a write's attempts");
+
+            release.countDown();
+            assertNotNull(holder.get(5, TimeUnit.SECONDS));
+            store.flush();
+            assertEquals(game, dao.getChessGame(gameId), "The buffered move should be written once there is room");
+        } finally {
+            store.close();
+        }
+    }
+
+    @Test
+    @Order(33)
+    void gameDataCacheDoesNotKeepARowLoadedBeforeAnUpdate() throws Exception {
+        MemoryDataAccess store = new MemoryDataAccess();
+        int gameId = store.createGame(new GameData(0, "Raced", null, null), null).getGameId();
+        CountDownLatch loaded = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        DataAccess slow = new ForwardingDataAccess(store) {
+            @Override
+            public GameData getGameData(int gameID) throws DataAccessException {
+                GameData game = super.getGameData(gameID);
+                loaded.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                return game;
+            }
+        };
+        CachingGameDataAccess cached = new CachingGameDataAccess(slow, 2, 60_000);
+
+        FutureTask<GameData> reader = new FutureTask<>(() -> cached.getGameData(gameId));
+        Thread.ofVirtual().start(reader);
+        assertTrue(loaded.await(5, TimeUnit.SECONDS));
+        FutureTask<Boolean> finisher = new FutureTask<>(
+                () -> cached.finishGame(gameId, GameData.Termination.RESIGNATION, ChessGame.TeamColor.BLACK));
+        Thread.ofVirtual().start(finisher);
+        // give the finish a chance to land while the read is still holding the row it loaded
+        Thread.sleep(100);
+        release.countDown();
+        assertFalse(reader.get(5, TimeUnit.SECONDS).isGameOver());
+        assertTrue(finisher.get(5, TimeUnit.SECONDS));
+
+        assertTrue(store.getGameData(gameId).isGameOver());
+        assertTrue(cached.getGameData(gameId).isGameOver(), "The row read before the game ended must not be cached");
+    }
 }
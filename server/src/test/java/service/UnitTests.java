@@ -1,6 +1,10 @@
 package service;
 
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
 import chess.model.data.GameData;
+import chess.model.request.GameListRequest;
 import chess.model.request.GameRequest;
 import chess.model.request.RegisterRequest;
 import chess.model.request.SessionRequest;
@@ -8,11 +12,27 @@ import chess.model.result.GameListResult;
 import chess.model.result.GameResult;
 import chess.model.result.RegisterResult;
 import chess.model.result.SessionResult;
+import com.google.gson.Gson;
 import dataaccess.MemoryDataAccess;
+import io.javalin.websocket.WsMessageContext;
+import org.eclipse.jetty.websocket.api.RemoteEndpoint;
+import org.eclipse.jetty.websocket.api.Session;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import websocket.messages.LoadGameMessage;
+import websocket.messages.MoveDeltaMessage;
+import websocket.messages.NotificationMessage;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class UnitTests {
@@ -237,6 +257,35 @@ public class UnitTests {
 
     }
 
+    @Test
+    @DisplayName("List games pages through filtered games with a cursor")
+    void testListGamesPagination() throws Exception {
+        userService.register(new RegisterRequest("Alice", "password123", "alice@email.com"));
+        SessionResult session = sessionService.login(new SessionRequest("Alice", "password123"));
+        for (int i = 1; i <= 5; i++) {
+            gameService.createGame(new GameRequest("Game " + i), session.getAuthToken());
+        }
+        gameService.joinGame(session.getAuthToken(), ChessGame.TeamColor.WHITE, 2);
+
+        GameListRequest request = new GameListRequest(null, 2);
+        request.setPlayer("Alice");
+        GameListResult mine = gameService.listGames(session.getAuthToken(), request);
+        assertEquals(1, mine.size());
+        assertNull(mine.getNextCursor(), "A single page should have no next cursor");
+
+        List<String> names = new ArrayList<>();
+        String cursor = null;
+        do {
+            GameListResult page = gameService.listGames(session.getAuthToken(), new GameListRequest(cursor, 2));
+            assertTrue(page.size() <= 2);
+            page.getGames().forEach(game -> names.add(game.getGameName()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        assertEquals(List.of("Game 1", "Game 2", "Game 3", "Game 4", "Game 5"), names);
+
+        assertFalse(gameService.listGames(session.getAuthToken(), new GameListRequest("bogus", 2)).isSuccess());
+    }
+
     @Test
     @DisplayName("List games returns empty list if no games exist")
     void testListGamesEmpty() throws Exception {
@@ -266,5 +315,101 @@ public class UnitTests {
         assertNull(game.getBlackUsername());
     }
 
+    @Test
+    @DisplayName("Game mailboxes run each game's commands in order")
+    void testGameMailboxesKeepOrderPerGame() throws Exception {
+        GameMailboxes mailboxes = new GameMailboxes();
+        List<Integer> first = new ArrayList<>();
+        List<Integer> second = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(2000);
+        for (int i = 0; i < 1000; i++) {
+            int n = i;
+            // plain lists: only safe if each game's tasks never overlap
+            mailboxes.submit(1, () -> { first.add(n); done.countDown(); });
+            mailboxes.submit(2, () -> { second.add(n); done.countDown(); });
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS), "Queued commands should all run");
+        mailboxes.shutdown();
+
+        List<Integer> expected = IntStream.range(0, 1000).boxed().toList();
+        assertEquals(expected, first);
+        assertEquals(expected, second);
+    }
+
+    @Test
+    @DisplayName("Game mailboxes survive failing commands and drop drained games")
+    void testGameMailboxesSurviveFailuresAndPrune() throws Exception {
+        GameMailboxes mailboxes = new GameMailboxes();
+        List<String> ran = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+        mailboxes.submit(1, () -> { throw new IllegalStateException("bad command"); });
+        mailboxes.submit(1, () -> { throw new AssertionError("worse command"); });
+        mailboxes.submit(1, () -> { ran.add("after"); done.countDown(); });
+        assertTrue(done.await(10, TimeUnit.SECONDS), "Commands behind a failure should still run");
+        assertEquals(List.of("after"), ran);
+
+        for (int game = 2; game < 100; game++) {
+            mailboxes.submit(game, () -> { });
+        }
+        mailboxes.shutdown();
+        assertEquals(0, mailboxes.activeGames(), "Drained games should not be kept");
+    }
 
-}//end of class
\ No newline at end of file
+    /**
+     * A WebSocket context whose session records every text it is sent, and then fails the
+     * send if closed is set.
+     */
+    private static WsMessageContext recordingContext(String id, List<String> sent, boolean closed) {
+        RemoteEndpoint remote = (RemoteEndpoint) Proxy.newProxyInstance(UnitTests.class.getClassLoader(),
+                new Class<?>[]{RemoteEndpoint.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("sendString") && args.length == 1) {
+                        sent.add((String) args[0]);
+                        if (closed) {
+                            throw new IOException("connection closed");
+                        }
+                    }
+                    return null;
+                });
+        Session session = (Session) Proxy.newProxyInstance(UnitTests.class.getClassLoader(),
+                new Class<?>[]{Session.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "getRemote" -> remote;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> null;
+                });
+        return new WsMessageContext(id, session, "");
+    }
+
+    @Test
+    @DisplayName("Broadcasts send each client its message format and drop dead sessions")
+    void testConnectionManagerBroadcasts() throws Exception {
+        Gson gson = new Gson();
+        List<String> full = new ArrayList<>();
+        List<String> deltas = new ArrayList<>();
+        List<String> gone = new ArrayList<>();
+        ConnectionManager manager = new ConnectionManager();
+        manager.addPlayer("full", recordingContext("1", full, false), false);
+        manager.addPlayer("deltas", recordingContext("2", deltas, false), true);
+        manager.addPlayer("gone", recordingContext("3", gone, true), false);
+
+        ChessGame game = new ChessGame();
+        ChessMove move = new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null);
+        game.makeMove(move);
+        manager.broadcastMove(new LoadGameMessage(game), MoveDeltaMessage.of(game, move), gson);
+        assertEquals(1, full.size());
+        assertEquals(game, gson.fromJson(full.get(0), LoadGameMessage.class).getGame());
+        assertEquals(1, deltas.size());
+        assertEquals(1, gson.fromJson(deltas.get(0), MoveDeltaMessage.class).getSequence());
+
+        String text = "Überraschung ♕ – checkmate";
+        manager.broadcastToOthers("deltas", new NotificationMessage(text), gson);
+        assertEquals(2, full.size());
+        assertEquals(1, deltas.size(), "The excluded user should not be sent the note");
+        assertEquals(text, gson.fromJson(full.get(1), NotificationMessage.class).getMessage());
+
+        manager.broadcastToAll(new NotificationMessage("again"), gson);
+        assertEquals(3, full.size());
+        assertEquals(2, deltas.size());
+        assertEquals(1, gone.size(), "A session whose send failed should be dropped");
+    }
+}
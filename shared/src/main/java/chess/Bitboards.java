@@ -0,0 +1,166 @@
+package chess;
+
+/**
+ * Precomputed attack tables and helpers for the bitboard board representation.
+ * <p>
+ * Squares are numbered 0-63, starting at row 1 column 1 (a1) and moving along
+ * the row first, so square = (row - 1) * 8 + (column - 1).
+ */
+final class Bitboards {
+
+    static final int NORTH = 0;
+    static final int EAST = 1;
+    static final int NORTH_EAST = 2;
+    static final int NORTH_WEST = 3;
+    static final int SOUTH = 4;
+    static final int WEST = 5;
+    static final int SOUTH_WEST = 6;
+    static final int SOUTH_EAST = 7;
+
+    private static final int[][] DIRECTIONS = {
+            {1, 0}, {0, 1}, {1, 1}, {1, -1},
+            {-1, 0}, {0, -1}, {-1, -1}, {-1, 1}
+    };
+
+    private static final long[][] RAYS = new long[8][64];
+    private static final long[] KNIGHT_ATTACKS = new long[64];
+    private static final long[] KING_ATTACKS = new long[64];
+    private static final long[][] PAWN_ATTACKS = new long[2][64];
+
+    static {
+        int[][] knightSteps = {
+                {-2, -1}, {-2, 1}, {-1, -2}, {-1, 2},
+                {1, -2}, {1, 2}, {2, -1}, {2, 1}
+        };
+        for (int square = 0; square < 64; square++) {
+            int row = square >>> 3;
+            int col = square & 7;
+
+            for (int dir = 0; dir < 8; dir++) {
+                long ray = 0L;
+                int r = row + DIRECTIONS[dir][0];
+                int c = col + DIRECTIONS[dir][1];
+                while (onBoard(r, c)) {
+                    ray |= bit(r, c);
+                    r += DIRECTIONS[dir][0];
+                    c += DIRECTIONS[dir][1];
+                }
+                RAYS[dir][square] = ray;
+
+                if (onBoard(row + DIRECTIONS[dir][0], col + DIRECTIONS[dir][1])) {
+                    KING_ATTACKS[square] |= bit(row + DIRECTIONS[dir][0], col + DIRECTIONS[dir][1]);
+                }
+            }
+
+            for (int[] step : knightSteps) {
+                if (onBoard(row + step[0], col + step[1])) {
+                    KNIGHT_ATTACKS[square] |= bit(row + step[0], col + step[1]);
+                }
+            }
+
+            for (int dc = -1; dc <= 1; dc += 2) {
+                if (onBoard(row + 1, col + dc)) {
+                    PAWN_ATTACKS[ChessGame.TeamColor.WHITE.ordinal()][square] |= bit(row + 1, col + dc);
+                }
+                if (onBoard(row - 1, col + dc)) {
+                    PAWN_ATTACKS[ChessGame.TeamColor.BLACK.ordinal()][square] |= bit(row - 1, col + dc);
+                }
+            }
+        }
+    }
+
+    private Bitboards() {
+    }
+
+    private static boolean onBoard(int row, int col) {
+        return row >= 0 && row < 8 && col >= 0 && col < 8;
+    }
+
+    private static long bit(int row, int col) {
+        return 1L << (row * 8 + col);
+    }
+
+    /**
+     * @return the square index of a 1-based row and column
+     */
+    static int square(int row, int col) {
+        return (row - 1) * 8 + (col - 1);
+    }
+
+    static int square(ChessPosition position) {
+        return square(position.getRow(), position.getColumn());
+    }
+
+    /**
+     * @return the 1-based row of a square index
+     */
+    static int row(int square) {
+        return (square >>> 3) + 1;
+    }
+
+    /**
+     * @return the 1-based column of a square index
+     */
+    static int column(int square) {
+        return (square & 7) + 1;
+    }
+
+    static long knightAttacks(int square) {
+        return KNIGHT_ATTACKS[square];
+    }
+
+    static long kingAttacks(int square) {
+        return KING_ATTACKS[square];
+    }
+
+    /**
+     * @return the squares a pawn of the given color standing on square attacks diagonally
+     */
+    static long pawnAttacks(ChessGame.TeamColor color, int square) {
+        return PAWN_ATTACKS[color.ordinal()][square];
+    }
+
+    static long rookAttacks(int square, long occupied) {
+        return rayAttacks(NORTH, square, occupied) | rayAttacks(EAST, square, occupied)
+                | rayAttacks(SOUTH, square, occupied) | rayAttacks(WEST, square, occupied);
+    }
+
+    static long bishopAttacks(int square, long occupied) {
+        return rayAttacks(NORTH_EAST, square, occupied) | rayAttacks(NORTH_WEST, square, occupied)
+                | rayAttacks(SOUTH_EAST, square, occupied) | rayAttacks(SOUTH_WEST, square, occupied);
+    }
+
+    static long queenAttacks(int square, long occupied) {
+        return rookAttacks(square, occupied) | bishopAttacks(square, occupied);
+    }
+
+    /**
+     * Slides from square in one direction, stopping on (and including) the first occupied square.
+     */
+    static long rayAttacks(int dir, int square, long occupied) {
+        long ray = RAYS[dir][square];
+        long blockers = ray & occupied;
+        if (blockers == 0) {
+            return ray;
+        }
+        // directions 0-3 walk towards higher square indexes, so the nearest blocker is the lowest bit
+        int blocker = dir < SOUTH
+                ? Long.numberOfTrailingZeros(blockers)
+                : 63 - Long.numberOfLeadingZeros(blockers);
+        return ray ^ RAYS[dir][blocker];
+    }
+
+    /**
+     * @return every square the given piece attacks from square on a board with the given occupancy
+     */
+    static long attacks(ChessPiece.PieceType type, ChessGame.TeamColor color, int square, long occupied) {
+        return switch (type) {
+            case KING -> kingAttacks(square);
+            case QUEEN -> queenAttacks(square, occupied);
+            case BISHOP -> bishopAttacks(square, occupied);
+            case KNIGHT -> knightAttacks(square);
+            case ROOK -> rookAttacks(square, occupied);
+            case PAWN -> pawnAttacks(color, square);
+        };
+    }
+}
@@ -11,10 +11,46 @@ import java.util.Arrays;
 public class ChessBoard {
     private ChessPiece[][] board = new ChessPiece[8][8];
 
+    // Bitboard index over board: one mask per color and piece type plus occupancy masks,
+    // the king squares and the Zobrist key of the placement.
+    // Built lazily from the array so boards deserialized by Gson (which only restores the
+    // array) stay consistent, then kept up to date by addPiece.
+    private transient long[] pieceMasks;
+    private transient long[] colorMasks;
+    private transient long occupied;
+    private transient int[] kingSquares;
+    private transient long zobristKey;
+
     public ChessBoard() {
 
     }
 
+    /**
+     * Builds a board from the placement field of a FEN string; any later fields are ignored.
+     *
+     * @throws IllegalArgumentException if the placement is malformed
+     */
+    public static ChessBoard fromFen(String fen) {
+        return Fen.parseBoard(fen);
+    }
+
+    /**
+     * @return the FEN placement field describing this board
+     */
+    public String toFen() {
+        return Fen.write(this);
+    }
+
+    /**
+     * Creates an independent copy of another board. Pieces are immutable, so only the
+     * placement is copied.
+     */
+    public ChessBoard(ChessBoard other) {
+        for (int row = 0; row < 8; row++) {
+            this.board[row] = other.board[row].clone();
+        }
+    }
+
     /**
      * Adds a chess piece to the chessboard
      *
@@ -22,7 +58,7 @@ public class ChessBoard {
      * @param piece    the piece to add
      */
     public void addPiece(ChessPosition position, ChessPiece piece) {
-        board[position.getRow() - 1][position.getColumn() - 1] = piece;
+        place(Bitboards.square(position), piece);
     }
 
     /**
@@ -36,6 +72,164 @@ public class ChessBoard {
         return board[position.getRow() - 1][position.getColumn() - 1];
     }
 
+    /**
+     * @return the piece on the given square index, or null if it is empty
+     */
+    ChessPiece pieceAt(int square) {
+        return board[square >>> 3][square & 7];
+    }
+
+    /**
+     * @return the squares holding pieces of the given color and type
+     */
+    long pieces(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return pieceMasks()[maskIndex(color, type)];
+    }
+
+    /**
+     * @return the squares holding pieces of the given color
+     */
+    long pieces(ChessGame.TeamColor color) {
+        pieceMasks();
+        return colorMasks[color.ordinal()];
+    }
+
+    /**
+     * @return the squares holding any piece
+     */
+    long occupied() {
+        pieceMasks();
+        return occupied;
+    }
+
+    /**
+     * Returns the Zobrist key of the pieces on this board. It is kept up to date as pieces
+     * are added, moved and removed, so reading it takes constant time.
+     *
+     * @return a 64-bit hash identifying the placement of the pieces
+     */
+    public long getZobristKey() {
+        pieceMasks();
+        return zobristKey;
+    }
+
+    /**
+     * @return the square index of the given color's king, or -1 if it has none
+     */
+    int kingSquare(ChessGame.TeamColor color) {
+        pieceMasks();
+        return kingSquares[color.ordinal()];
+    }
+
+    /**
+     * Determines whether any piece of the given color attacks a square, by casting
+     * rays and knight, pawn and king offsets outward from the square itself.
+     */
+    boolean isSquareAttacked(int square, ChessGame.TeamColor by) {
+        long[] masks = pieceMasks();
+        int base = by.ordinal() * 6;
+        if ((Bitboards.knightAttacks(square) & masks[base + ChessPiece.PieceType.KNIGHT.ordinal()]) != 0) {
+            return true;
+        }
+        // a pawn of color "by" attacks square exactly when a pawn of the other color on square would attack it
+        if ((Bitboards.pawnAttacks(by.opponent(), square) & masks[base + ChessPiece.PieceType.PAWN.ordinal()]) != 0) {
+            return true;
+        }
+        if ((Bitboards.kingAttacks(square) & masks[base + ChessPiece.PieceType.KING.ordinal()]) != 0) {
+            return true;
+        }
+        long queens = masks[base + ChessPiece.PieceType.QUEEN.ordinal()];
+        long straight = masks[base + ChessPiece.PieceType.ROOK.ordinal()] | queens;
+        if (straight != 0 && (Bitboards.rookAttacks(square, occupied) & straight) != 0) {
+            return true;
+        }
+        long diagonal = masks[base + ChessPiece.PieceType.BISHOP.ordinal()] | queens;
+        return diagonal != 0 && (Bitboards.bishopAttacks(square, occupied) & diagonal) != 0;
+    }
+
+    /**
+     * Moves the piece on from to to in place, without any legality checks. A promotion
+     * type replaces the moving piece on its destination square.
+     *
+     * @return the piece captured on to, or null; hand it back to unmakeMove to undo the move
+     */
+    ChessPiece makeMove(int from, int to, ChessPiece.PieceType promotion) {
+        ChessPiece moved = pieceAt(from);
+        ChessPiece captured = pieceAt(to);
+        place(from, null);
+        place(to, promotion == null ? moved : ChessPiece.of(moved.getTeamColor(), promotion));
+        return captured;
+    }
+
+    /**
+     * Reverts a makeMove call, putting moved back on from and captured back on to.
+     */
+    void unmakeMove(int from, int to, ChessPiece moved, ChessPiece captured) {
+        place(to, captured);
+        place(from, moved);
+    }
+
+    /**
+     * Puts piece (or nothing, when null) on the given square index, keeping the bitboard
+     * index in step.
+     */
+    void place(int square, ChessPiece piece) {
+        ChessPiece previous = pieceAt(square);
+        board[square >>> 3][square & 7] = piece;
+
+        if (pieceMasks != null) {
+            long bit = 1L << square;
+            if (previous != null) {
+                unindex(previous, bit);
+            }
+            if (piece != null) {
+                index(piece, bit);
+            }
+        }
+    }
+
+    private static int maskIndex(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return color.ordinal() * 6 + type.ordinal();
+    }
+
+    private void index(ChessPiece piece, long bit) {
+        pieceMasks[maskIndex(piece.getTeamColor(), piece.getPieceType())] |= bit;
+        colorMasks[piece.getTeamColor().ordinal()] |= bit;
+        occupied |= bit;
+        zobristKey ^= Zobrist.piece(piece, Long.numberOfTrailingZeros(bit));
+        if (piece.getPieceType() == ChessPiece.PieceType.KING) {
+            kingSquares[piece.getTeamColor().ordinal()] = Long.numberOfTrailingZeros(bit);
+        }
+    }
+
+    private void unindex(ChessPiece piece, long bit) {
+        pieceMasks[maskIndex(piece.getTeamColor(), piece.getPieceType())] &= ~bit;
+        colorMasks[piece.getTeamColor().ordinal()] &= ~bit;
+        occupied &= ~bit;
+        zobristKey ^= Zobrist.piece(piece, Long.numberOfTrailingZeros(bit));
+        if (piece.getPieceType() == ChessPiece.PieceType.KING) {
+            long kings = pieceMasks[maskIndex(piece.getTeamColor(), ChessPiece.PieceType.KING)];
+            kingSquares[piece.getTeamColor().ordinal()] = kings == 0 ? -1 : Long.numberOfTrailingZeros(kings);
+        }
+    }
+
+    private long[] pieceMasks() {
+        if (pieceMasks == null) {
+            pieceMasks = new long[12];
+            colorMasks = new long[2];
+            kingSquares = new int[]{-1, -1};
+            occupied = 0L;
+            zobristKey = 0L;
+            for (int square = 0; square < 64; square++) {
+                ChessPiece piece = pieceAt(square);
+                if (piece != null) {
+                    index(piece, 1L << square);
+                }
+            }
+        }
+        return pieceMasks;
+    }
+
     /**
      * Sets the board to the default starting board
      * (How the game of chess normally starts)
@@ -47,11 +241,12 @@ public class ChessBoard {
                 this.board[row][col] = null;
             }
         }
+        this.pieceMasks = null;
 
         //setting pawns, indexes are different because addPiece accounts for it:
         for (int col = 1; col <= 8; col++) {
-            addPiece(new ChessPosition(2, col), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
-            addPiece(new ChessPosition(7, col), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+            addPiece(ChessPosition.of(2, col), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+            addPiece(ChessPosition.of(7, col), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
         }
 
         //setting other pieces
@@ -67,8 +262,8 @@ public class ChessBoard {
 
                 };
         for (int col = 1; col <= 8; col++) {
-            addPiece(new ChessPosition(1, col), new ChessPiece(ChessGame.TeamColor.WHITE, backRow[col - 1]));
-            addPiece(new ChessPosition(8, col), new ChessPiece(ChessGame.TeamColor.BLACK, backRow[col - 1]));
+            addPiece(ChessPosition.of(1, col), new ChessPiece(ChessGame.TeamColor.WHITE, backRow[col - 1]));
+            addPiece(ChessPosition.of(8, col), new ChessPiece(ChessGame.TeamColor.BLACK, backRow[col - 1]));
         }
     }//end of reset board
 
@@ -81,12 +276,12 @@ public class ChessBoard {
             return false;
         }
         ChessBoard that = (ChessBoard) o;
-        return Arrays.deepEquals(board, that.board);
+        return Arrays.equals(pieceMasks(), that.pieceMasks());
     }
 
     @Override
     public int hashCode() {
-        return Arrays.deepHashCode(board);
+        return Long.hashCode(getZobristKey());
     }
 
     @Override
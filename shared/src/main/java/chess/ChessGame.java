@@ -1,7 +1,9 @@
 package chess;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Objects;
 
 /**
@@ -13,6 +15,17 @@ import java.util.Objects;
 public class ChessGame {
     ChessGame.TeamColor teamTurn;
     ChessBoard board;
+    // moves made since the game's starting position
+    private int ply;
+
+    // Legal moves of the most recently evaluated position, keyed by its position key
+    // (board key combined with the side whose moves were generated)
+    private transient MoveList legalMoveCache;
+    private transient long legalMoveCacheKey;
+    // Optional bounded cache of earlier positions, see enablePositionCache
+    private transient Map<Long, MoveList> recentPositions;
+    // how many times legal moves were generated rather than found in a cache
+    private transient int positionsGenerated;
 
     /**
      * Constructs a new ChessGame with a fresh board and sets turn to white.
@@ -23,6 +36,41 @@ public class ChessGame {
         this.teamTurn = TeamColor.WHITE; // white ALWAYS starts first
     }
 
+    /**
+     * Creates a game around an existing board without resetting it.
+     */
+    ChessGame(ChessBoard board, TeamColor teamTurn) {
+        this.board = board;
+        this.teamTurn = teamTurn;
+    }
+
+    /**
+     * Creates an independent copy of another game's board and turn.
+     */
+    public ChessGame(ChessGame other) {
+        this.board = new ChessBoard(other.board);
+        this.teamTurn = other.teamTurn;
+        this.ply = other.ply;
+    }
+
+    /**
+     * Builds a game from a FEN string. Castling, en passant and move counter fields are
+     * ignored because the engine does not track them.
+     *
+     * @throws IllegalArgumentException if the placement or side to move is malformed
+     */
+    public static ChessGame fromFen(String fen) {
+        return Fen.parseGame(fen);
+    }
+
+    /**
+     * @return this game's position as FEN, with no castling or en passant and the move
+     * counters at 0 1
+     */
+    public String toFen() {
+        return Fen.write(this);
+    }
+
     /**
      * @return Which team's turn it is
      */
@@ -30,6 +78,21 @@ public class ChessGame {
         return this.teamTurn;
     }
 
+    /**
+     * @return the number of moves made in this game, so the move that makeMove applies
+     * next is number getPly() + 1
+     */
+    public int getPly() {
+        return ply;
+    }
+
+    /**
+     * Sets the number of moves made, for games rebuilt from a stored position.
+     */
+    public void setPly(int ply) {
+        this.ply = ply;
+    }
+
     /**
      * Set which team's turn it is
      *
@@ -54,107 +117,130 @@ public class ChessGame {
     }
 
     /**
-     * Finds the position of the king for the specified team.
-     *
-     * @param board     The chess board to search.
-     * @param teamColor The color of the king to find.
-     * @return The position of the king, or null if not found.
+     * Determines if the specified team would be in check on a given board state.
      */
-    private ChessPosition findKing(ChessBoard board, TeamColor teamColor) {
-        for (int row = 1; row <= 8; row++) {
-            for (int col = 1; col <= 8; col++) {
-                ChessPosition current = new ChessPosition(row, col);
-                ChessPiece piece = board.getPiece(current);
-                if (piece == null) {
-                    continue;
-                }
-                if (piece.getPieceType() == ChessPiece.PieceType.KING &&
-                        piece.getTeamColor() == teamColor) {
-                    return current;
-                }
-            }
-        }
-        return null;
+    private boolean wouldBeInCheck(ChessBoard board, TeamColor teamColor) {
+        int king = board.kingSquare(teamColor);
+        return king >= 0 && board.isSquareAttacked(king, teamColor.opponent());
     }
 
     /**
-     * Checks whether any opponent piece can attack a given position.
+     * Returns all valid moves for a piece at the given position.
      */
-    private boolean anyMoveAttacksPosition(ChessPiece piece, ChessBoard board, ChessPosition from, ChessPosition target) {
-        for (ChessMove move : piece.pieceMoves(board, from)) {
-            if (move.getEndPosition().equals(target)) {
-                return true;
+    public Collection<ChessMove> validMoves(ChessPosition startPosition) {
+        ChessPiece piece = getBoard().getPiece(startPosition);
+        if (piece == null) {
+            return new ArrayList<>();
+        }
+
+        int square = Bitboards.square(startPosition);
+        MoveList legal = legalMoves(piece.getTeamColor());
+        Collection<ChessMove> moves = new ArrayList<>();
+        for (int i = 0; i < legal.size(); i++) {
+            int move = legal.get(i);
+            if (PackedMove.from(move) == square) {
+                moves.add(PackedMove.toChessMove(move));
             }
         }
-        return false;
+        return moves;
     }
 
     /**
-     * Determines if the specified team would be in check on a given board state.
+     * Keeps the legal moves of up to capacity recently seen positions, so positions that
+     * come up again (repetitions, or the position before a rejected move) are not
+     * regenerated. A capacity of 0 turns the cache off; it is off by default.
      */
-    private boolean wouldBeInCheck(ChessBoard board, TeamColor teamColor) {
-        ChessPosition kingPos = findKing(board, teamColor);
-        for (int row = 1; row <= 8; row++) {
-            for (int col = 1; col <= 8; col++) {
-                ChessPosition pos = new ChessPosition(row, col);
-                ChessPiece piece = board.getPiece(pos);
-                if (piece == null || piece.getTeamColor() == teamColor) {
-                    continue;
-                }
-                if (anyMoveAttacksPosition(piece, board, pos, kingPos)) {
-                    return true;
-                }
-            }
+    public void enablePositionCache(int capacity) {
+        if (capacity <= 0) {
+            recentPositions = null;
+            return;
         }
-        return false;
+        recentPositions = new LinkedHashMap<>(capacity * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, MoveList> eldest) {
+                return size() > capacity;
+            }
+        };
     }
 
     /**
-     * Creates a deep copy of the provided chess board.
+     * Returns every legal move for the given team, generating them at most once per
+     * position. The result is shared and must not be modified.
      */
-    private ChessBoard copyBoard(ChessBoard original) {
-        ChessBoard copy = new ChessBoard();
-        for (int row = 1; row <= 8; row++) {
-            for (int col = 1; col <= 8; col++) {
-                ChessPosition pos = new ChessPosition(row, col);
-                ChessPiece piece = original.getPiece(pos);
-                if (piece != null) {
-                    copy.addPiece(pos, new ChessPiece(piece.getTeamColor(), piece.getPieceType()));
-                }
+    private MoveList legalMoves(TeamColor teamColor) {
+        long key = board.getZobristKey() ^ (teamColor == TeamColor.BLACK ? Zobrist.BLACK_TO_MOVE : 0L);
+        if (legalMoveCache != null && legalMoveCacheKey == key) {
+            return legalMoveCache;
+        }
+
+        MoveList moves = recentPositions == null ? null : recentPositions.get(key);
+        if (moves == null) {
+            moves = new MoveList();
+            generateLegalMoves(teamColor, moves);
+            positionsGenerated++;
+            if (recentPositions != null) {
+                recentPositions.put(key, moves);
             }
         }
-        return copy;
+        legalMoveCache = moves;
+        legalMoveCacheKey = key;
+        return moves;
+    }
+
+    int positionsGenerated() {
+        return positionsGenerated;
+    }
+
+    int cachedPositionCount() {
+        return recentPositions == null ? 0 : recentPositions.size();
+    }
+
+    private void invalidateLegalMoves() {
+        legalMoveCache = null;
     }
 
     /**
-     * Returns all valid moves for a piece at the given position.
+     * Appends every legal move for the given team to moves, as packed moves.
      */
-    public Collection<ChessMove> validMoves(ChessPosition startPosition) {
-        Collection<ChessMove> legalMoves = new HashSet<>();
-        ChessPiece piece = getBoard().getPiece(startPosition);
-        if (piece == null) {
-            return legalMoves;
+    public void generateLegalMoves(TeamColor teamColor, MoveList moves) {
+        long remaining = this.board.pieces(teamColor);
+        while (remaining != 0) {
+            int square = Long.numberOfTrailingZeros(remaining);
+            remaining &= remaining - 1;
+            addLegalMoves(this.board, square, moves);
         }
+    }
+
+    /**
+     * Appends the legal moves of the piece on the given square to moves, generating its
+     * pseudo-legal moves in place and dropping those that leave its king attacked.
+     */
+    private void addLegalMoves(ChessBoard board, int square, MoveList moves) {
+        ChessPiece piece = board.pieceAt(square);
+        int first = moves.size();
+        piece.generateMoves(board, square, moves);
 
-        for (ChessMove move : piece.pieceMoves(getBoard(), startPosition)) {
-            ChessBoard boardCopy = copyBoard(getBoard());
-            applyMoveToBoardCopy(boardCopy, move, piece);
-            if (!wouldBeInCheck(boardCopy, piece.getTeamColor())) {
-                legalMoves.add(move);
+        int kept = first;
+        for (int i = first; i < moves.size(); i++) {
+            int move = moves.get(i);
+            if (isLegal(board, move, piece)) {
+                moves.set(kept++, move);
             }
         }
-        return legalMoves;
+        moves.truncate(kept);
     }
 
-    private void applyMoveToBoardCopy(ChessBoard boardCopy, ChessMove move, ChessPiece piece) {
-        ChessPiece newPiece;
-        if (move.getPromotionPiece() != null) {
-            newPiece = new ChessPiece(piece.getTeamColor(), move.getPromotionPiece());
-        } else {
-            newPiece = new ChessPiece(piece.getTeamColor(), piece.getPieceType());
-        }
-        boardCopy.addPiece(move.getEndPosition(), newPiece);
-        boardCopy.addPiece(move.getStartPosition(), null);
+    /**
+     * Plays the move on the board in place, checks whether it leaves the mover's king
+     * attacked, and takes it back again.
+     */
+    private boolean isLegal(ChessBoard board, int move, ChessPiece piece) {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        ChessPiece captured = board.makeMove(from, to, PackedMove.promotion(move));
+        boolean inCheck = wouldBeInCheck(board, piece.getTeamColor());
+        board.unmakeMove(from, to, piece, captured);
+        return !inCheck;
     }
 
     /**
@@ -172,41 +258,26 @@ public class ChessGame {
         if (piece.getTeamColor() != getTeamTurn()) {
             throw new InvalidMoveException("Not your turn");
         }
-
-        if (validMoves(start).contains(move)) {
-            applyMoveToBoard(board, move, piece);
-            switchTurns();
-        } else {
+        if (move.getEndPosition() == null || !move.getEndPosition().isOnBoard()) {
             throw new InvalidMoveException("Move is invalid.");
         }
-    }
 
-    private void applyMoveToBoard(ChessBoard board, ChessMove move, ChessPiece piece) {
-        if (move.getPromotionPiece() != null) {
-            board.addPiece(move.getEndPosition(), new ChessPiece(piece.getTeamColor(), move.getPromotionPiece()));
+        int packed = PackedMove.encode(move);
+        if (legalMoves(piece.getTeamColor()).contains(packed)) {
+            board.makeMove(PackedMove.from(packed), PackedMove.to(packed), move.getPromotionPiece());
+            invalidateLegalMoves();
+            switchTurns();
+            ply++;
         } else {
-            board.addPiece(move.getEndPosition(), piece);
+            throw new InvalidMoveException("Move is invalid.");
         }
-        board.addPiece(move.getStartPosition(), null);
     }
 
     /**
      * Checks if a team has at least one legal move.
      */
     private boolean hasLegalMoves(TeamColor teamColor) {
-        for (int row = 1; row <= 8; row++) {
-            for (int col = 1; col <= 8; col++) {
-                ChessPosition pos = new ChessPosition(row, col);
-                ChessPiece piece = this.board.getPiece(pos);
-                if (piece == null || piece.getTeamColor() != teamColor) {
-                    continue;
-                }
-                if (!validMoves(pos).isEmpty()) {
-                    return true;
-                }
-            }
-        }
-        return false;
+        return !legalMoves(teamColor).isEmpty();
     }
 
     /**
@@ -230,12 +301,34 @@ public class ChessGame {
         return !isInCheck(teamColor) && !hasLegalMoves(teamColor);
     }
 
+    /**
+     * Returns the Zobrist key of this position: the board's key combined with the side to
+     * move. Equal positions share a key, so it can identify positions in caches and
+     * repetition checks without comparing boards.
+     */
+    public long getPositionKey() {
+        long key = board.getZobristKey();
+        return teamTurn == TeamColor.BLACK ? key ^ Zobrist.BLACK_TO_MOVE : key;
+    }
+
+    /**
+     * Evaluates the given team's position in one pass: one check test and one legal
+     * move generation cover check, checkmate and stalemate.
+     */
+    public GameStatus getGameStatus(TeamColor teamColor) {
+        return new GameStatus(isInCheck(teamColor), legalMoves(teamColor).size());
+    }
+
     public ChessBoard getBoard() {
         return this.board;
     }
 
     public void setBoard(ChessBoard board) {
         this.board = board;
+        invalidateLegalMoves();
+        if (recentPositions != null) {
+            recentPositions.clear();
+        }
     }
 
     @Override
@@ -251,7 +344,7 @@ public class ChessGame {
 
     @Override
     public int hashCode() {
-        return Objects.hash(teamTurn, board);
+        return board == null ? Objects.hashCode(teamTurn) : Long.hashCode(getPositionKey());
     }
 
     @Override
@@ -260,6 +353,13 @@ public class ChessGame {
     }
 
     public enum TeamColor {
-        WHITE, BLACK
+        WHITE, BLACK;
+
+        /**
+         * @return the other team
+         */
+        public TeamColor opponent() {
+            return this == WHITE ? BLACK : WHITE;
+        }
     }
 }
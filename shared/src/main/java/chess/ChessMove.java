@@ -9,9 +9,15 @@ import java.util.Objects;
  * signature of the existing methods.
  */
 public class ChessMove {
-    private ChessPosition startPosition;
-    private ChessPosition endPosition;
-    private ChessPiece.PieceType promotionPiece;
+    // Every on-board from/to/promotion combination, indexed by (from * 64 + to) * 7 + promotion slot.
+    // Entries are created on first use; the fields are final, so sharing them across threads is safe.
+    private static final ChessMove[] MOVES = new ChessMove[64 * 64 * 7];
+
+    private final ChessPosition startPosition;
+    private final ChessPosition endPosition;
+    private final ChessPiece.PieceType promotionPiece;
+    // Cached on first use; transient so Gson neither writes it nor restores a stale value
+    private transient int hash;
 
     public ChessMove(ChessPosition startPosition, ChessPosition endPosition,
                      ChessPiece.PieceType promotionPiece) {
@@ -20,6 +26,34 @@ public class ChessMove {
         this.promotionPiece = promotionPiece;
     }
 
+    /**
+     * Returns the shared instance for a move between two on-board positions, or a new
+     * move if either position is off the board.
+     *
+     * @return a move equal to new ChessMove(startPosition, endPosition, promotionPiece)
+     */
+    public static ChessMove of(ChessPosition startPosition, ChessPosition endPosition,
+                               ChessPiece.PieceType promotionPiece) {
+        if (startPosition == null || endPosition == null
+                || !startPosition.isOnBoard() || !endPosition.isOnBoard()) {
+            return new ChessMove(startPosition, endPosition, promotionPiece);
+        }
+        return of(Bitboards.square(startPosition), Bitboards.square(endPosition), promotionPiece);
+    }
+
+    /**
+     * @return the shared instance for a move between two square indexes in 0-63
+     */
+    static ChessMove of(int from, int to, ChessPiece.PieceType promotionPiece) {
+        int slot = (from * 64 + to) * 7 + (promotionPiece == null ? 0 : promotionPiece.ordinal() + 1);
+        ChessMove move = MOVES[slot];
+        if (move == null) {
+            move = new ChessMove(ChessPosition.ofSquare(from), ChessPosition.ofSquare(to), promotionPiece);
+            MOVES[slot] = move;
+        }
+        return move;
+    }
+
     /**
      * @return ChessPosition of starting location
      */
@@ -67,8 +101,14 @@ public class ChessMove {
     }
 
     @Override
-    public int hashCode() {
-        return Objects.hash(startPosition, endPosition, promotionPiece);
+    public final int hashCode() {
+        int h = hash;
+        if (h == 0) {
+            h = 31 * (31 * Objects.hashCode(startPosition) + Objects.hashCode(endPosition))
+                    + (promotionPiece == null ? 0 : promotionPiece.ordinal() + 1);
+            hash = h;
+        }
+        return h;
     }
 }
 
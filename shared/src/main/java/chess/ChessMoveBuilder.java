@@ -21,6 +21,6 @@ public class ChessMoveBuilder {
     }
 
     public ChessMove createChessMove() {
-        return new ChessMove(startPosition, endPosition, promotionPiece);
+        return ChessMove.of(startPosition, endPosition, promotionPiece);
     }
 }
\ No newline at end of file
@@ -1,7 +1,6 @@
 package chess;
 
 import java.util.Collection;
-import java.util.HashSet;
 import java.util.Objects;
 
 /**
@@ -11,6 +10,21 @@ import java.util.Objects;
  * signature of the existing methods.
  */
 public class ChessPiece {
+    // One shared instance per color and type; pieces carry no mutable state, so the
+    // engine can place these on a board instead of allocating new ones.
+    private static final ChessPiece[] SHARED = new ChessPiece[12];
+
+    static {
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            for (PieceType type : PieceType.values()) {
+                SHARED[color.ordinal() * 6 + type.ordinal()] = new ChessPiece(color, type);
+            }
+        }
+    }
+
+    private static final int[] WHITE_PAWN_INFO = {1, 2, 8};
+    private static final int[] BLACK_PAWN_INFO = {-1, 7, 1};
+
     private ChessGame.TeamColor pieceColor;
     private PieceType type;
 
@@ -19,6 +33,13 @@ public class ChessPiece {
         this.type = type;
     }
 
+    /**
+     * @return the shared piece instance for the given color and type
+     */
+    static ChessPiece of(ChessGame.TeamColor pieceColor, ChessPiece.PieceType type) {
+        return SHARED[pieceColor.ordinal() * 6 + type.ordinal()];
+    }
+
     /**
      * @return Which team this chess piece belongs to
      */
@@ -34,130 +55,90 @@ public class ChessPiece {
     }
 
     /**
-     * Helper method for pieceMoves method
-     * addSlidingMoves works with the pieces whose movements can go as far as possible like rook, bishop and queen
+     * Helper method for generateMoves method
+     * addTargetMoves turns a mask of destination squares into packed moves from the given square
      **/
-    private void addSlidingMoves(ChessBoard board, ChessPosition from, Collection<ChessMove> moves,
-                                 int[][] directions) {
-        for (int[] dir : directions) {
-            int row = from.getRow();
-            int col = from.getColumn();
-
-            while (true) {
-                row += dir[0];
-                col += dir[1];
-
-                if (!board.inBounds(row, col)) {
-                    break;
-                }
-
-                ChessPosition to = new ChessPosition(row, col);
-                ChessPiece occupant = board.getPiece(to);
-
-                if (occupant == null) {
-                    moves.add(new ChessMove(from, to, null));
-                } else {
-                    if (occupant.getTeamColor() != this.getTeamColor()) {
-                        moves.add(new ChessMove(from, to, null));
-                    }
-                    break;
-                }
-            }
+    private void addTargetMoves(int from, long targets, MoveList moves) {
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            moves.add(PackedMove.encode(from, to, null));
         }
     }
 
-    private void addStepMoves(ChessBoard board, ChessPosition from, Collection<ChessMove> moves, int[][] directions) {
-        for (int[] dir : directions) {
-            int row = from.getRow() + dir[0];
-            int col = from.getColumn() + dir[1];
-
-            if (!board.inBounds(row, col)) {
-                continue; // skip out-of-bounds
-            }
-
-            ChessPosition to = new ChessPosition(row, col);
-            ChessPiece occupant = board.getPiece(to);
-
-            if (occupant == null || occupant.getTeamColor() != this.getTeamColor()) {
-                moves.add(new ChessMove(from, to, null));
+    private void addPawnTargetMoves(int from, long targets, MoveList moves) {
+        int promotionRow = getPawnInfo()[2];
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            if (Bitboards.row(to) == promotionRow) {
+                addPromotions(moves, from, to);
+            } else {
+                moves.add(PackedMove.encode(from, to, null));
             }
         }
     }
 
-    private void addPromotions(Collection<ChessMove> moves, ChessPosition from, ChessPosition to) {
-        moves.add(new ChessMove(from, to, ChessPiece.PieceType.QUEEN));
-        moves.add(new ChessMove(from, to, ChessPiece.PieceType.ROOK));
-        moves.add(new ChessMove(from, to, ChessPiece.PieceType.BISHOP));
-        moves.add(new ChessMove(from, to, ChessPiece.PieceType.KNIGHT));
+    private void addPromotions(MoveList moves, int from, int to) {
+        moves.add(PackedMove.encode(from, to, ChessPiece.PieceType.QUEEN));
+        moves.add(PackedMove.encode(from, to, ChessPiece.PieceType.ROOK));
+        moves.add(PackedMove.encode(from, to, ChessPiece.PieceType.BISHOP));
+        moves.add(PackedMove.encode(from, to, ChessPiece.PieceType.KNIGHT));
     }
 
     private int[] getPawnInfo() {
         // Returns {direction, startRow, promotionRow} based on team color
         if (this.getTeamColor() == ChessGame.TeamColor.WHITE) {
-            return new int[]{1, 2, 8};
+            return WHITE_PAWN_INFO;
         } else {
-            return new int[]{-1, 7, 1};
+            return BLACK_PAWN_INFO;
         }
     }
 
-    public void pawnMoves(ChessBoard board, ChessPosition from, Collection<ChessMove> moves) {
+    /**
+     * @return the empty squares a pawn on the given square can advance to
+     */
+    private long pawnPushTargets(ChessBoard board, int from) {
         int[] info = getPawnInfo();
         int direction = info[0];
         int startRow = info[1];
-        int promotionRow = info[2];
 
-        int col = from.getColumn();
-        int row = from.getRow();
+        int row = Bitboards.row(from);
+        if (!board.inBounds(row + direction, 1)) {
+            return 0L;
+        }
+        long empty = ~board.occupied();
 
         // one step
-        int oneStep = row + direction;
-        ChessPosition onePos = new ChessPosition(oneStep, col);
-        if (board.inBounds(oneStep, col) && board.getPiece(onePos) == null) {
-            if (oneStep == promotionRow) {
-                addPromotions(moves, from, onePos);
-            } else {
-                moves.add(new ChessMove(from, onePos, null));
-
-                // two steps
-                if (row == startRow) {
-                    int twoStep = row + 2 * direction;
-                    ChessPosition twoPos = new ChessPosition(twoStep, col);
-                    if (board.inBounds(twoStep, col) && board.getPiece(twoPos) == null) {
-                        moves.add(new ChessMove(from, twoPos, null));
-                    }
-                }
-            }
+        long oneStep = (1L << (from + 8 * direction)) & empty;
+        if (oneStep == 0 || row != startRow) {
+            return oneStep;
         }
+        // two steps
+        return oneStep | ((1L << (from + 16 * direction)) & empty);
     }
 
-    private void pawnCaptures(ChessBoard board, ChessPosition from, Collection<ChessMove> moves) {
-        int[] info = getPawnInfo();
-        int direction = info[0];
-        int promotionRow = info[2];
-
-        int col = from.getColumn();
-        int row = from.getRow();
-
-        // diagonal captures
-        int[] cols = {col - 1, col + 1};
-        int diagonalRow = row + direction;
-
-        for (int c : cols) {
-            if (!board.inBounds(diagonalRow, c)) {
-                continue;
-            }
-            ChessPosition to = new ChessPosition(diagonalRow, c);
-            ChessPiece occupant = board.getPiece(to);
+    public void pawnMoves(ChessBoard board, ChessPosition from, Collection<ChessMove> moves) {
+        int square = Bitboards.square(from);
+        MoveList pushes = new MoveList(8);
+        addPawnTargetMoves(square, pawnPushTargets(board, square), pushes);
+        moves.addAll(pushes.toChessMoves());
+    }
 
-            // checking if they are the enemy
-            if (occupant != null && occupant.getTeamColor() != this.getTeamColor()) {
-                if (diagonalRow == promotionRow) {
-                    addPromotions(moves, from, to);
-                } else {
-                    moves.add(new ChessMove(from, to, null));
-                }
-            }
+    /**
+     * Appends the packed moves this piece can make from the given square to moves.
+     * Like pieceMoves, does not take into account moves that leave the king in danger.
+     */
+    void generateMoves(ChessBoard board, int from, MoveList moves) {
+        if (this.type == PieceType.PAWN) {
+            long enemies = board.occupied() & ~board.pieces(pieceColor);
+            long captures = Bitboards.pawnAttacks(pieceColor, from) & enemies;
+            addPawnTargetMoves(from, pawnPushTargets(board, from) | captures, moves);
+            return;
         }
+
+        long targets = Bitboards.attacks(this.type, this.pieceColor, from, board.occupied());
+        addTargetMoves(from, targets & ~board.pieces(pieceColor), moves);
     }
 
     /**
@@ -168,54 +149,9 @@ public class ChessPiece {
      * @return Collection of valid moves
      */
     public Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition myPosition) {
-        Collection<ChessMove> moves = new HashSet<>();
-
-        switch (this.type) {
-            case ROOK: {
-                int[][] directions = {
-                        {1, 0}, {-1, 0}, {0, 1}, {0, -1}
-                };
-                addSlidingMoves(board, myPosition, moves, directions);
-                break;
-            }
-            case BISHOP: {
-                int[][] directions = {
-                        {1, 1}, {1, -1}, {-1, 1}, {-1, -1}
-                };
-                addSlidingMoves(board, myPosition, moves, directions);
-                break;
-            }
-            case QUEEN: {
-                int[][] directions = {
-                        {1, 0}, {-1, 0}, {0, 1}, {0, -1},
-                        {1, 1}, {1, -1}, {-1, 1}, {-1, -1}
-                };
-                addSlidingMoves(board, myPosition, moves, directions);
-                break;
-            }
-            case KNIGHT: {
-                int[][] directions = {
-                        {-2, -1}, {-2, 1}, {-1, -2}, {-1, 2},
-                        {1, -2}, {1, 2}, {2, -1}, {2, 1}
-                };
-                addStepMoves(board, myPosition, moves, directions);
-                break;
-            }
-            case KING: {
-                int[][] directions = {
-                        {1, 0}, {-1, 0}, {0, 1}, {0, -1},
-                        {1, 1}, {1, -1}, {-1, 1}, {-1, -1}
-                };
-                addStepMoves(board, myPosition, moves, directions);
-                break;
-            }
-            case PAWN:
-                pawnMoves(board, myPosition, moves);
-                pawnCaptures(board, myPosition, moves);
-                break;
-        }
-
-        return moves;
+        MoveList moves = new MoveList(32);
+        generateMoves(board, Bitboards.square(myPosition), moves);
+        return moves.toChessMoves();
     }
 
     @Override
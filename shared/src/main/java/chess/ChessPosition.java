@@ -1,7 +1,5 @@
 package chess;
 
-import java.util.Objects;
-
 /**
  * Represents a single square position on a chess board
  * <p>
@@ -9,14 +7,51 @@ import java.util.Objects;
  * signature of the existing methods.
  */
 public class ChessPosition {
-    private int row;
-    private int col;
+    // The 64 on-board positions, indexed by square (row - 1) * 8 + (column - 1)
+    private static final ChessPosition[] SQUARES = new ChessPosition[64];
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            SQUARES[square] = new ChessPosition((square >>> 3) + 1, (square & 7) + 1);
+        }
+    }
+
+    private final int row;
+    private final int col;
+    // Cached on first use; transient so Gson neither writes it nor restores a stale value
+    private transient int hash;
 
     public ChessPosition(int row, int col) {
         this.row = row;
         this.col = col;
     }
 
+    /**
+     * Returns the shared instance for an on-board position, or a new one for positions
+     * off the board.
+     *
+     * @param row    1-based row
+     * @param col    1-based column
+     * @return a position equal to new ChessPosition(row, col)
+     */
+    public static ChessPosition of(int row, int col) {
+        if (row < 1 || row > 8 || col < 1 || col > 8) {
+            return new ChessPosition(row, col);
+        }
+        return SQUARES[(row - 1) * 8 + (col - 1)];
+    }
+
+    boolean isOnBoard() {
+        return row >= 1 && row <= 8 && col >= 1 && col <= 8;
+    }
+
+    /**
+     * @return the shared instance for a square index in 0-63
+     */
+    static ChessPosition ofSquare(int square) {
+        return SQUARES[square];
+    }
+
     /**
      * @return which row this position is in
      * 1 codes for the bottom row
@@ -54,8 +89,13 @@ public class ChessPosition {
     }
 
     @Override
-    public int hashCode() {
-        return Objects.hash(row, col);
+    public final int hashCode() {
+        int h = hash;
+        if (h == 0) {
+            h = 31 * row + col;
+            hash = h;
+        }
+        return h;
     }
 }
 
@@ -0,0 +1,137 @@
+package chess;
+
+/**
+ * Reads and writes positions in Forsyth-Edwards Notation, for example
+ * {@code rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1}.
+ * <p>
+ * The engine does not track castling rights, en passant or move counters, so those
+ * fields are skipped when reading and written as {@code - - 0 1}. Only the placement
+ * field is required; a missing side to move means white.
+ */
+final class Fen {
+
+    // indexed by piece type ordinal: KING, QUEEN, BISHOP, KNIGHT, ROOK, PAWN
+    private static final char[] WHITE_LETTERS = {'K', 'Q', 'B', 'N', 'R', 'P'};
+    private static final char[] BLACK_LETTERS = {'k', 'q', 'b', 'n', 'r', 'p'};
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
+    private Fen() {
+    }
+
+    static ChessGame parseGame(String fen) {
+        ChessBoard board = new ChessBoard();
+        int end = parsePlacement(fen, board);
+
+        ChessGame.TeamColor turn = ChessGame.TeamColor.WHITE;
+        if (end < fen.length()) {
+            int side = end + 1;
+            char c = side < fen.length() ? fen.charAt(side) : ' ';
+            if (c == 'b') {
+                turn = ChessGame.TeamColor.BLACK;
+            } else if (c != 'w' || (side + 1 < fen.length() && fen.charAt(side + 1) != ' ')) {
+                throw error(fen, "bad side to move");
+            }
+        }
+        return new ChessGame(board, turn);
+    }
+
+    static ChessBoard parseBoard(String fen) {
+        ChessBoard board = new ChessBoard();
+        parsePlacement(fen, board);
+        return board;
+    }
+
+    /**
+     * Places the pieces of fen's placement field on an empty board.
+     *
+     * @return the index just past the placement field
+     */
+    private static int parsePlacement(String fen, ChessBoard board) {
+        if (fen == null) {
+            throw new IllegalArgumentException("FEN must not be null");
+        }
+        int row = 8;
+        int col = 1;
+        int i = 0;
+        for (; i < fen.length(); i++) {
+            char c = fen.charAt(i);
+            if (c == ' ') {
+                break;
+            }
+            if (c == '/') {
+                if (col != 9 || row == 1) {
+                    throw error(fen, "bad rank " + row);
+                }
+                row--;
+                col = 1;
+            } else if (c >= '1' && c <= '8') {
+                col += c - '0';
+                if (col > 9) {
+                    throw error(fen, "rank " + row + " is too long");
+                }
+            } else {
+                if (col > 8) {
+                    throw error(fen, "rank " + row + " is too long");
+                }
+                board.place(Bitboards.square(row, col++), piece(fen, c));
+            }
+        }
+        if (row != 1 || col != 9) {
+            throw error(fen, "expected 8 complete ranks");
+        }
+        return i;
+    }
+
+    private static ChessPiece piece(String fen, char c) {
+        ChessGame.TeamColor color = c < 'a' ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+        char[] letters = color == ChessGame.TeamColor.WHITE ? WHITE_LETTERS : BLACK_LETTERS;
+        for (int type = 0; type < letters.length; type++) {
+            if (letters[type] == c) {
+                return ChessPiece.of(color, TYPES[type]);
+            }
+        }
+        throw error(fen, "bad piece '" + c + "'");
+    }
+
+    static String write(ChessGame game) {
+        StringBuilder fen = new StringBuilder(90);
+        writePlacement(game.getBoard(), fen);
+        fen.append(game.getTeamTurn() == ChessGame.TeamColor.BLACK ? " b" : " w").append(" - - 0 1");
+        return fen.toString();
+    }
+
+    static String write(ChessBoard board) {
+        StringBuilder fen = new StringBuilder(72);
+        writePlacement(board, fen);
+        return fen.toString();
+    }
+
+    private static void writePlacement(ChessBoard board, StringBuilder fen) {
+        for (int row = 8; row >= 1; row--) {
+            int empty = 0;
+            for (int col = 1; col <= 8; col++) {
+                ChessPiece piece = board.pieceAt(Bitboards.square(row, col));
+                if (piece == null) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    fen.append((char) ('0' + empty));
+                    empty = 0;
+                }
+                char[] letters = piece.getTeamColor() == ChessGame.TeamColor.WHITE ? WHITE_LETTERS : BLACK_LETTERS;
+                fen.append(letters[piece.getPieceType().ordinal()]);
+            }
+            if (empty > 0) {
+                fen.append((char) ('0' + empty));
+            }
+            if (row > 1) {
+                fen.append('/');
+            }
+        }
+    }
+
+    private static IllegalArgumentException error(String fen, String problem) {
+        return new IllegalArgumentException("Invalid FEN (" + problem + "): " + fen);
+    }
+}
@@ -0,0 +1,63 @@
+package chess;
+
+/**
+ * Compact binary encoding of a game's state, used to store games and send them over the
+ * wire without the overhead of JSON.
+ * <p>
+ * An encoded game is {@value #LENGTH} bytes: a format version, a flags byte (bit 0 set
+ * when black is to move) and 32 bytes holding one 4-bit code per square, two squares per
+ * byte with the lower-numbered square in the low nibble. Code 0 is an empty square and
+ * codes 1-12 are 1 + color ordinal * 6 + piece type ordinal.
+ */
+public final class GameStateCodec {
+
+    public static final int LENGTH = 34;
+
+    private static final byte VERSION = 1;
+    private static final int BLACK_TO_MOVE = 1;
+    private static final int HEADER = 2;
+
+    private GameStateCodec() {
+    }
+
+    public static byte[] encode(ChessGame game) {
+        byte[] bytes = new byte[LENGTH];
+        bytes[0] = VERSION;
+        bytes[1] = (byte) (game.getTeamTurn() == ChessGame.TeamColor.BLACK ? BLACK_TO_MOVE : 0);
+
+        ChessBoard board = game.getBoard();
+        for (int square = 0; square < 64; square++) {
+            ChessPiece piece = board.pieceAt(square);
+            if (piece != null) {
+                int code = 1 + piece.getTeamColor().ordinal() * 6 + piece.getPieceType().ordinal();
+                bytes[HEADER + (square >>> 1)] |= (byte) (code << ((square & 1) << 2));
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * @throws IllegalArgumentException if bytes is not a game encoded by this codec
+     */
+    public static ChessGame decode(byte[] bytes) {
+        if (bytes == null || bytes.length != LENGTH || bytes[0] != VERSION) {
+            throw new IllegalArgumentException("Not an encoded game state");
+        }
+        ChessGame.TeamColor[] colors = ChessGame.TeamColor.values();
+        ChessPiece.PieceType[] types = ChessPiece.PieceType.values();
+
+        ChessBoard board = new ChessBoard();
+        for (int square = 0; square < 64; square++) {
+            int code = (bytes[HEADER + (square >>> 1)] >>> ((square & 1) << 2)) & 0xF;
+            if (code > 12) {
+                throw new IllegalArgumentException("Bad piece code " + code + " in encoded game state");
+            }
+            if (code != 0) {
+                board.place(square, ChessPiece.of(colors[(code - 1) / 6], types[(code - 1) % 6]));
+            }
+        }
+        ChessGame.TeamColor turn = (bytes[1] & BLACK_TO_MOVE) != 0 ? ChessGame.TeamColor.BLACK
+                : ChessGame.TeamColor.WHITE;
+        return new ChessGame(board, turn);
+    }
+}
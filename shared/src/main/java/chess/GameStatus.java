@@ -0,0 +1,56 @@
+package chess;
+
+/**
+ * The state of one team's position: whether it is in check and how many legal moves it
+ * has, and the resulting outcome.
+ */
+public class GameStatus {
+    private final TeamState state;
+    private final boolean inCheck;
+    private final int legalMoveCount;
+
+    public GameStatus(boolean inCheck, int legalMoveCount) {
+        this.inCheck = inCheck;
+        this.legalMoveCount = legalMoveCount;
+        if (legalMoveCount == 0) {
+            this.state = inCheck ? TeamState.CHECKMATE : TeamState.STALEMATE;
+        } else {
+            this.state = inCheck ? TeamState.CHECK : TeamState.PLAYING;
+        }
+    }
+
+    public TeamState getState() {
+        return state;
+    }
+
+    public boolean isInCheck() {
+        return inCheck;
+    }
+
+    public boolean isCheckmate() {
+        return state == TeamState.CHECKMATE;
+    }
+
+    public boolean isStalemate() {
+        return state == TeamState.STALEMATE;
+    }
+
+    public int getLegalMoveCount() {
+        return legalMoveCount;
+    }
+
+    @Override
+    public String toString() {
+        return "GameStatus{" +
+                "state=" + state +
+                ", legalMoveCount=" + legalMoveCount +
+                '}';
+    }
+
+    public enum TeamState {
+        PLAYING,
+        CHECK,
+        CHECKMATE,
+        STALEMATE
+    }
+}
@@ -0,0 +1,84 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A growable list of packed moves (see {@link PackedMove}) backed by an int array.
+ * Clearing keeps the backing array, so one list can be reused across generations.
+ */
+public class MoveList {
+    private int[] moves;
+    private int size;
+
+    public MoveList() {
+        this(64);
+    }
+
+    public MoveList(int initialCapacity) {
+        this.moves = new int[Math.max(initialCapacity, 1)];
+    }
+
+    public void add(int move) {
+        if (size == moves.length) {
+            moves = Arrays.copyOf(moves, size * 2);
+        }
+        moves[size++] = move;
+    }
+
+    public int get(int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        return moves[index];
+    }
+
+    void set(int index, int move) {
+        moves[index] = move;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Drops every move from newSize onwards.
+     */
+    void truncate(int newSize) {
+        size = newSize;
+    }
+
+    public boolean contains(int move) {
+        for (int i = 0; i < size; i++) {
+            if (moves[i] == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the moves as shared ChessMove instances, in list order
+     */
+    public List<ChessMove> toChessMoves() {
+        List<ChessMove> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(PackedMove.toChessMove(moves[i]));
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "MoveList{" + toChessMoves() + '}';
+    }
+}
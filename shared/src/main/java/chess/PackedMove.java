@@ -0,0 +1,52 @@
+package chess;
+
+/**
+ * Packs a chess move into a single int so the engine can generate and store moves
+ * without allocating ChessMove objects.
+ * <p>
+ * Bits 0-5 hold the start square, bits 6-11 the end square and bits 12-14 the
+ * promotion piece (0 for none, otherwise PieceType ordinal + 1). Squares are numbered
+ * 0-63 as (row - 1) * 8 + (column - 1).
+ */
+public final class PackedMove {
+
+    private static final ChessPiece.PieceType[] PIECE_TYPES = ChessPiece.PieceType.values();
+
+    private PackedMove() {
+    }
+
+    public static int encode(int from, int to, ChessPiece.PieceType promotion) {
+        return from | (to << 6) | ((promotion == null ? 0 : promotion.ordinal() + 1) << 12);
+    }
+
+    /**
+     * @return the packed form of an on-board move
+     */
+    public static int encode(ChessMove move) {
+        return encode(Bitboards.square(move.getStartPosition()), Bitboards.square(move.getEndPosition()),
+                move.getPromotionPiece());
+    }
+
+    public static int from(int move) {
+        return move & 0x3F;
+    }
+
+    public static int to(int move) {
+        return (move >>> 6) & 0x3F;
+    }
+
+    /**
+     * @return the promotion piece of a packed move, or null if it is not a promotion
+     */
+    public static ChessPiece.PieceType promotion(int move) {
+        int slot = (move >>> 12) & 0x7;
+        return slot == 0 ? null : PIECE_TYPES[slot - 1];
+    }
+
+    /**
+     * @return the shared ChessMove instance for a packed move
+     */
+    public static ChessMove toChessMove(int move) {
+        return ChessMove.of(from(move), to(move), promotion(move));
+    }
+}
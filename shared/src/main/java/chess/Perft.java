@@ -0,0 +1,85 @@
+package chess;
+
+import java.util.List;
+
+/**
+ * Perft (performance test) for the move generator: counts the leaf nodes of the legal
+ * move tree to a fixed depth, which both measures generator throughput and catches
+ * generator bugs when compared with published node counts.
+ * <p>
+ * The engine does not implement castling or en passant, so the reference positions
+ * below have no castling rights and stop at depths where en passant cannot yet occur.
+ * <p>
+ * The benchmarks module's benchmark.PerftRunner prints node counts and nodes per second
+ * for every reference position.
+ */
+public class Perft {
+
+    /**
+     * A position given in FEN with its known node counts, where expected[d - 1] is the
+     * count at depth d.
+     */
+    public record Reference(String name, String fen, long[] expected) {
+    }
+
+    public static final List<Reference> REFERENCES = List.of(
+            new Reference("start position",
+                    "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1",
+                    new long[]{20, 400, 8_902, 197_281}),
+            new Reference("endgame (CPW position 3)",
+                    "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+                    new long[]{14, 191}),
+            new Reference("middlegame (CPW position 6)",
+                    "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+                    new long[]{46, 2_079, 89_890, 3_894_594})
+    );
+
+    private static final int MAX_DEPTH = 32;
+
+    private final ChessGame game;
+    private final ChessBoard board;
+    private final MoveList[] movesByPly = new MoveList[MAX_DEPTH];
+
+    public Perft(ChessGame game) {
+        this.game = game;
+        this.board = game.getBoard();
+        for (int ply = 0; ply < MAX_DEPTH; ply++) {
+            movesByPly[ply] = new MoveList();
+        }
+    }
+
+    /**
+     * Counts the leaf nodes reachable in exactly depth moves from the game's position.
+     * The game's board is changed while counting and restored before returning.
+     */
+    public long count(int depth) {
+        if (depth < 0 || depth > MAX_DEPTH) {
+            throw new IllegalArgumentException("Depth must be between 0 and " + MAX_DEPTH);
+        }
+        return count(game.getTeamTurn(), depth, 0);
+    }
+
+    private long count(ChessGame.TeamColor side, int depth, int ply) {
+        if (depth == 0) {
+            return 1;
+        }
+        MoveList moves = movesByPly[ply];
+        moves.clear();
+        game.generateLegalMoves(side, moves);
+        if (depth == 1) {
+            return moves.size();
+        }
+
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            int from = PackedMove.from(move);
+            int to = PackedMove.to(move);
+            ChessPiece moved = board.pieceAt(from);
+            ChessPiece captured = board.makeMove(from, to, PackedMove.promotion(move));
+            nodes += count(side.opponent(), depth - 1, ply + 1);
+            board.unmakeMove(from, to, moved, captured);
+        }
+        return nodes;
+    }
+}
@@ -0,0 +1,44 @@
+package chess;
+
+/**
+ * Random keys for Zobrist hashing of positions: a position's key is the XOR of one key
+ * per occupied square (chosen by piece color, type and square) and, when black is to
+ * move, the side-to-move key.
+ * <p>
+ * The keys come from a fixed-seed SplitMix64 sequence, so the same position hashes to
+ * the same key in every JVM.
+ */
+final class Zobrist {
+
+    static final long BLACK_TO_MOVE;
+
+    private static final long[][] PIECE_SQUARE = new long[12][64];
+
+    static {
+        long state = 0x2406_1C0F_FEE1_5EEDL;
+        for (long[] keys : PIECE_SQUARE) {
+            for (int square = 0; square < 64; square++) {
+                state += 0x9E37_79B9_7F4A_7C15L;
+                keys[square] = mix(state);
+            }
+        }
+        state += 0x9E37_79B9_7F4A_7C15L;
+        BLACK_TO_MOVE = mix(state);
+    }
+
+    private Zobrist() {
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58_476D_1CE4_E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D0_49BB_1331_11EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * @return the key for the given piece standing on the given square index
+     */
+    static long piece(ChessPiece piece, int square) {
+        return PIECE_SQUARE[piece.getTeamColor().ordinal() * 6 + piece.getPieceType().ordinal()][square];
+    }
+}
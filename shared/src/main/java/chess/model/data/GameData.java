@@ -1,12 +1,24 @@
 package chess.model.data;
 
+import chess.ChessGame;
 
 public class GameData {
 
+    /**
+     * How a finished game ended.
+     */
+    public enum Termination {
+        RESIGNATION,
+        CHECKMATE,
+        STALEMATE
+    }
+
     private final Integer gameID;
     private final String gameName;
     private String whiteUsername;
     private String blackUsername;
+    private Termination termination;
+    private ChessGame.TeamColor winner;
 
     public GameData(Integer gameID, String gameName, String whiteUsername, String blackUsername) {
         this.gameID = gameID;
@@ -16,6 +28,12 @@ public class GameData {
 
     }
 
+    public GameData(GameData other) {
+        this(other.gameID, other.gameName, other.whiteUsername, other.blackUsername);
+        this.termination = other.termination;
+        this.winner = other.winner;
+    }
+
     public Integer getGameId() {
         return gameID;
     }
@@ -40,4 +58,32 @@ public class GameData {
         this.blackUsername = blackUsername;
     }
 
+    public boolean isGameOver() {
+        return termination != null;
+    }
+
+    /**
+     * @return how the game ended, or null while it is still being played
+     */
+    public Termination getTermination() {
+        return termination;
+    }
+
+    /**
+     * @return the side that won, or null for a draw or a game still being played
+     */
+    public ChessGame.TeamColor getWinner() {
+        return winner;
+    }
+
+    /**
+     * Records the result of the game.
+     *
+     * @param winner the side that won, or null for a draw
+     */
+    public void finish(Termination termination, ChessGame.TeamColor winner) {
+        this.termination = termination;
+        this.winner = winner;
+    }
+
 }
@@ -0,0 +1,77 @@
+package chess.model.request;
+
+/**
+ * One page of the game listing. Games are listed in creation order; pass the previous
+ * page's nextCursor as cursor to continue after it. Filters left null match every game.
+ */
+public class GameListRequest {
+
+    /**
+     * Which games to list by whether they have a result yet.
+     */
+    public enum Status {
+        ACTIVE,
+        FINISHED
+    }
+
+    private String cursor;
+    private int limit;
+    private Boolean openSeats;
+    private String player;
+    private Status status;
+
+    // Required for JSON deserialization
+    public GameListRequest() {
+    }
+
+    public GameListRequest(String cursor, int limit) {
+        this.cursor = cursor;
+        this.limit = limit;
+    }
+
+    public String getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+
+    /**
+     * @return true to list only games with a free color, false for only full games
+     */
+    public Boolean getOpenSeats() {
+        return openSeats;
+    }
+
+    public void setOpenSeats(Boolean openSeats) {
+        this.openSeats = openSeats;
+    }
+
+    /**
+     * @return a username to list only that user's games as either color
+     */
+    public String getPlayer() {
+        return player;
+    }
+
+    public void setPlayer(String player) {
+        this.player = player;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+}
@@ -8,6 +8,7 @@ public class GameListResult {
     private boolean success;
     private String message;
     private List<GameData> games;
+    private String nextCursor;
 
 
     public GameListResult(boolean success, String message, List<GameData> games) {
@@ -20,6 +21,12 @@ public class GameListResult {
         return new GameListResult(true, null, games);
     }
 
+    public static GameListResult success(List<GameData> games, String nextCursor) {
+        GameListResult result = new GameListResult(true, null, games);
+        result.nextCursor = nextCursor;
+        return result;
+    }
+
     public static GameListResult failure(String message) {
         return new GameListResult(false, message, null);
     }
@@ -49,6 +56,17 @@ public class GameListResult {
     }
 
 
+    /**
+     * @return the cursor that lists the games after this page, or null if it is the last
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
     public int size() {
         return games != null ? games.size() : 0;
     }
@@ -1,6 +1,7 @@
 package chess.server;
 
 import chess.model.data.GameData;
+import chess.model.request.GameListRequest;
 import chess.model.request.GameRequest;
 import chess.model.request.JoinGameRequest;
 import chess.model.request.RegisterRequest;
@@ -15,7 +16,11 @@ import java.net.http.*;
 import java.net.http.HttpRequest.BodyPublisher;
 import java.net.http.HttpRequest.BodyPublishers;
 import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.StringJoiner;
 
 public class ServerFacade {
     private final HttpClient client = HttpClient.newHttpClient();
@@ -46,10 +51,47 @@ public class ServerFacade {
 
         return result;
     }
+    /**
+     * Lists every game, following the server's page cursors until the last page.
+     */
     public GameListResult listGames(String authToken) throws ResponseException {
+        List<GameData> games = new ArrayList<>();
+        GameListRequest page = new GameListRequest();
+        do {
+            var result = listGames(authToken, page);
+            if (result.getGames() != null) {
+                games.addAll(result.getGames());
+            }
+            page.setCursor(result.getNextCursor());
+        } while (page.getCursor() != null);
+
+        return GameListResult.success(games);
+    }
+
+    /**
+     * Lists one page of games, passing the request's cursor, limit and filters on to the
+     * server. The result's nextCursor continues the listing.
+     */
+    public GameListResult listGames(String authToken, GameListRequest req) throws ResponseException {
         var headers = Map.of("authorization", authToken);
+        var query = new StringJoiner("&", "?", "").setEmptyValue("");
+        if (req.getCursor() != null) {
+            query.add("cursor=" + URLEncoder.encode(req.getCursor(), StandardCharsets.UTF_8));
+        }
+        if (req.getLimit() > 0) {
+            query.add("limit=" + req.getLimit());
+        }
+        if (req.getOpenSeats() != null) {
+            query.add("open=" + req.getOpenSeats());
+        }
+        if (req.getPlayer() != null) {
+            query.add("player=" + URLEncoder.encode(req.getPlayer(), StandardCharsets.UTF_8));
+        }
+        if (req.getStatus() != null) {
+            query.add("status=" + req.getStatus().name().toLowerCase());
+        }
 
-        var request = buildRequest("GET", "/game", null, headers);
+        var request = buildRequest("GET", "/game" + query, null, headers);
         var response = sendRequest(request);
         var result = handleResponse(response, GameListResult.class);
 
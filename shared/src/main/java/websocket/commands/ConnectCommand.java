@@ -1,7 +1,23 @@
 package websocket.commands;
 public class ConnectCommand extends UserGameCommand {
 
+    // null when the client did not say, which means full LOAD_GAME messages only
+    private final Boolean acceptsMoveDeltas;
+
     public ConnectCommand(String authToken, Integer gameID) {
+        this(authToken, gameID, false);
+    }
+
+    /**
+     * @param acceptsMoveDeltas whether the client handles MOVE_DELTA messages in place of
+     *                          a LOAD_GAME after every move
+     */
+    public ConnectCommand(String authToken, Integer gameID, boolean acceptsMoveDeltas) {
         super(CommandType.CONNECT, authToken, gameID);
+        this.acceptsMoveDeltas = acceptsMoveDeltas;
+    }
+
+    public boolean acceptsMoveDeltas() {
+        return Boolean.TRUE.equals(acceptsMoveDeltas);
     }
 }
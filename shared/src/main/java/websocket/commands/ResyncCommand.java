@@ -0,0 +1,11 @@
+package websocket.commands;
+
+/**
+ * Asks the server to resend the full game, for a client whose copy fell out of step.
+ */
+public class ResyncCommand extends UserGameCommand {
+
+    public ResyncCommand(String authToken, Integer gameID) {
+        super(CommandType.RESYNC, authToken, gameID);
+    }
+}
@@ -0,0 +1,88 @@
+package websocket.messages;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+
+import java.util.List;
+
+/**
+ * Tells a client about one move without resending the whole game: the move, the squares
+ * it changed and the game's ply after it, which doubles as a sequence number. Clients
+ * that opted in at connect get these instead of LOAD_GAME after each move.
+ */
+public class MoveDeltaMessage extends ServerMessage {
+
+    private final int sequence;
+    private final ChessMove move;
+    private final List<SquareChange> changes;
+
+    public MoveDeltaMessage(int sequence, ChessMove move, List<SquareChange> changes) {
+        super(ServerMessageType.MOVE_DELTA);
+        this.sequence = sequence;
+        this.move = move;
+        this.changes = changes;
+    }
+
+    /**
+     * Describes a move that was just made in game.
+     */
+    public static MoveDeltaMessage of(ChessGame game, ChessMove move) {
+        ChessPosition end = move.getEndPosition();
+        return new MoveDeltaMessage(game.getPly(), move, List.of(
+                new SquareChange(move.getStartPosition(), null),
+                new SquareChange(end, game.getBoard().getPiece(end))));
+    }
+
+    public int getSequence() {
+        return sequence;
+    }
+
+    public ChessMove getMove() {
+        return move;
+    }
+
+    public List<SquareChange> getChanges() {
+        return changes;
+    }
+
+    /**
+     * Applies this move to a client's copy of the game.
+     *
+     * @return false, leaving game untouched, if game is not at the ply just before this
+     * move; the client has missed a message and should ask for a resync
+     */
+    public boolean applyTo(ChessGame game) {
+        if (game.getPly() + 1 != sequence) {
+            return false;
+        }
+        for (SquareChange change : changes) {
+            game.getBoard().addPiece(change.getPosition(), change.getPiece());
+        }
+        game.setTeamTurn(game.getTeamTurn().opponent());
+        game.setPly(sequence);
+        return true;
+    }
+
+    /**
+     * The new contents of one square; piece is null when the square was emptied.
+     */
+    public static class SquareChange {
+        private final ChessPosition position;
+        private final ChessPiece piece;
+
+        public SquareChange(ChessPosition position, ChessPiece piece) {
+            this.position = position;
+            this.piece = piece;
+        }
+
+        public ChessPosition getPosition() {
+            return position;
+        }
+
+        public ChessPiece getPiece() {
+            return piece;
+        }
+    }
+}
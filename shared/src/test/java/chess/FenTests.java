@@ -0,0 +1,50 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class FenTests {
+
+    private static final String START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1";
+
+    @Test
+    public void startPositionMatchesNewGame() {
+        Assertions.assertEquals(new ChessGame(), ChessGame.fromFen(START));
+        Assertions.assertEquals(START, new ChessGame().toFen());
+    }
+
+    @Test
+    public void roundTripsReferencePositions() {
+        for (Perft.Reference reference : Perft.REFERENCES) {
+            ChessGame game = ChessGame.fromFen(reference.fen());
+            String fen = game.toFen();
+            String placementAndSide = reference.fen().substring(0, reference.fen().indexOf(' ') + 2);
+            Assertions.assertTrue(fen.startsWith(placementAndSide), reference.name() + ": " + fen);
+            Assertions.assertEquals(game, ChessGame.fromFen(fen));
+            Assertions.assertEquals(game.getBoard(), ChessBoard.fromFen(fen));
+        }
+    }
+
+    @Test
+    public void sideToMoveIsRead() {
+        ChessGame game = ChessGame.fromFen("4k3/8/8/8/8/8/8/4K3 b - - 0 1");
+        Assertions.assertEquals(ChessGame.TeamColor.BLACK, game.getTeamTurn());
+        Assertions.assertEquals(ChessGame.TeamColor.WHITE, ChessGame.fromFen("4k3/8/8/8/8/8/8/4K3").getTeamTurn());
+    }
+
+    @Test
+    public void rejectsMalformedFen() {
+        String[] malformed = {
+                "",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP w - - 0 1",
+                "rnbqkbnr/pppppppp/9/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1",
+                "rnbqkbnr/ppppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNX w - - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR x - - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR/8 w - - 0 1"
+        };
+        for (String fen : malformed) {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen(fen), fen);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class GameStateCodecTests {
+
+    @Test
+    public void roundTripsReferencePositions() {
+        for (Perft.Reference reference : Perft.REFERENCES) {
+            ChessGame game = ChessGame.fromFen(reference.fen());
+            game.setTeamTurn(ChessGame.TeamColor.BLACK);
+
+            byte[] encoded = GameStateCodec.encode(game);
+            Assertions.assertEquals(GameStateCodec.LENGTH, encoded.length);
+
+            ChessGame decoded = GameStateCodec.decode(encoded);
+            Assertions.assertEquals(game, decoded, reference.name());
+            Assertions.assertEquals(game.getPositionKey(), decoded.getPositionKey());
+        }
+    }
+
+    @Test
+    public void rejectsMalformedInput() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> GameStateCodec.decode(new byte[5]));
+
+        byte[] badPiece = GameStateCodec.encode(new ChessGame());
+        badPiece[20] = (byte) 0xFF;
+        Assertions.assertThrows(IllegalArgumentException.class, () -> GameStateCodec.decode(badPiece));
+    }
+}
@@ -0,0 +1,49 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class GetGameStatusTests {
+
+    private static GameStatus assertAgrees(ChessGame game, ChessGame.TeamColor team) {
+        GameStatus status = game.getGameStatus(team);
+        Assertions.assertEquals(game.isInCheck(team), status.isInCheck());
+        Assertions.assertEquals(game.isInCheckmate(team), status.isCheckmate());
+        Assertions.assertEquals(game.isInStalemate(team), status.isStalemate());
+        return status;
+    }
+
+    @Test
+    public void checkmate() {
+        // fool's mate
+        ChessGame game = ChessGame.fromFen("rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w - - 0 1");
+        GameStatus status = assertAgrees(game, ChessGame.TeamColor.WHITE);
+        Assertions.assertEquals(GameStatus.TeamState.CHECKMATE, status.getState());
+        Assertions.assertEquals(0, status.getLegalMoveCount());
+    }
+
+    @Test
+    public void stalemate() {
+        ChessGame game = ChessGame.fromFen("7k/5Q2/6K1/8/8/8/8/8 b - - 0 1");
+        GameStatus status = assertAgrees(game, ChessGame.TeamColor.BLACK);
+        Assertions.assertEquals(GameStatus.TeamState.STALEMATE, status.getState());
+        Assertions.assertEquals(0, status.getLegalMoveCount());
+    }
+
+    @Test
+    public void checkWithMovesLeft() {
+        ChessGame game = ChessGame.fromFen("4k3/8/8/8/8/8/8/4R1K1 b - - 0 1");
+        GameStatus status = assertAgrees(game, ChessGame.TeamColor.BLACK);
+        Assertions.assertEquals(GameStatus.TeamState.CHECK, status.getState());
+        Assertions.assertTrue(status.getLegalMoveCount() > 0);
+    }
+
+    @Test
+    public void quietPosition() {
+        ChessGame game = new ChessGame();
+        GameStatus status = assertAgrees(game, ChessGame.TeamColor.WHITE);
+        Assertions.assertEquals(GameStatus.TeamState.PLAYING, status.getState());
+        Assertions.assertEquals(20, status.getLegalMoveCount());
+        Assertions.assertEquals(GameStatus.TeamState.PLAYING, assertAgrees(game, ChessGame.TeamColor.BLACK).getState());
+    }
+}
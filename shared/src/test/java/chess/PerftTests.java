@@ -0,0 +1,52 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class PerftTests {
+
+    // Deep reference counts take seconds; keep the unit test to the quick ones
+    private static final long MAX_TEST_NODES = 1_000_000;
+
+    @Test
+    @DisplayName("Perft from resetBoard matches known node counts")
+    public void perftStartingBoard() {
+        Perft perft = new Perft(new ChessGame());
+        Assertions.assertEquals(20, perft.count(1));
+        Assertions.assertEquals(400, perft.count(2));
+        Assertions.assertEquals(8_902, perft.count(3));
+        Assertions.assertEquals(197_281, perft.count(4));
+    }
+
+    @Test
+    @DisplayName("Perft of reference FEN positions matches known node counts")
+    public void perftReferencePositions() {
+        for (Perft.Reference reference : Perft.REFERENCES) {
+            ChessGame game = ChessGame.fromFen(reference.fen());
+            ChessBoard before = copyOf(game.getBoard());
+            Perft perft = new Perft(game);
+
+            for (int depth = 1; depth <= reference.expected().length; depth++) {
+                long expected = reference.expected()[depth - 1];
+                if (expected > MAX_TEST_NODES) {
+                    break;
+                }
+                Assertions.assertEquals(expected, perft.count(depth),
+                        reference.name() + " at depth " + depth);
+            }
+            Assertions.assertEquals(before, game.getBoard(), "Perft did not restore the board");
+            Assertions.assertEquals(before.getZobristKey(), game.getBoard().getZobristKey());
+        }
+    }
+
+    private static ChessBoard copyOf(ChessBoard board) {
+        ChessBoard copy = new ChessBoard();
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                copy.addPiece(ChessPosition.of(row, col), board.getPiece(ChessPosition.of(row, col)));
+            }
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,62 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class PositionCacheTests {
+
+    private static final ChessPosition WHITE_KNIGHT = new ChessPosition(1, 7);
+
+    // knights out and back, which repeats the starting position with white to move
+    private static final ChessMove[] SHUFFLE = {
+            new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null),
+            new ChessMove(new ChessPosition(8, 7), new ChessPosition(6, 6), null),
+            new ChessMove(new ChessPosition(3, 6), new ChessPosition(1, 7), null),
+            new ChessMove(new ChessPosition(6, 6), new ChessPosition(8, 7), null),
+    };
+
+    private static int generationsToRevisitStart(ChessGame game) throws InvalidMoveException {
+        game.validMoves(WHITE_KNIGHT);
+        for (ChessMove move : SHUFFLE) {
+            game.makeMove(move);
+        }
+        int before = game.positionsGenerated();
+        game.validMoves(WHITE_KNIGHT);
+        return game.positionsGenerated() - before;
+    }
+
+    @Test
+    public void repeatedPositionIsServedFromCache() throws InvalidMoveException {
+        ChessGame cached = new ChessGame();
+        cached.enablePositionCache(8);
+        Assertions.assertEquals(0, generationsToRevisitStart(cached));
+
+        Assertions.assertEquals(1, generationsToRevisitStart(new ChessGame()),
+                "Without the cache the repeated position is generated again");
+    }
+
+    @Test
+    public void cacheEvictsOldestPositionAtCapacity() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.enablePositionCache(2);
+        Assertions.assertEquals(1, generationsToRevisitStart(game),
+                "The starting position should have been evicted by the later ones");
+        Assertions.assertEquals(2, game.cachedPositionCount());
+    }
+
+    @Test
+    public void setBoardClearsCache() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.enablePositionCache(8);
+        game.validMoves(WHITE_KNIGHT);
+        Assertions.assertEquals(1, game.cachedPositionCount());
+
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        game.setBoard(board);
+        Assertions.assertEquals(0, game.cachedPositionCount());
+        int before = game.positionsGenerated();
+        game.validMoves(WHITE_KNIGHT);
+        Assertions.assertEquals(before + 1, game.positionsGenerated());
+    }
+}
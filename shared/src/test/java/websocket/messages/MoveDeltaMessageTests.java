@@ -0,0 +1,50 @@
+package websocket.messages;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import com.google.gson.Gson;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class MoveDeltaMessageTests {
+
+    private final Gson gson = new Gson();
+
+    @Test
+    public void deltasKeepClientGameInStep() throws Exception {
+        ChessGame server = new ChessGame();
+        ChessGame client = gson.fromJson(gson.toJson(new LoadGameMessage(server)), LoadGameMessage.class).getGame();
+
+        ChessMove[] moves = {
+                new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null),
+                new ChessMove(new ChessPosition(7, 4), new ChessPosition(5, 4), null),
+                new ChessMove(new ChessPosition(4, 5), new ChessPosition(5, 4), null)
+        };
+        for (ChessMove move : moves) {
+            server.makeMove(move);
+            String json = gson.toJson(MoveDeltaMessage.of(server, move));
+            MoveDeltaMessage delta = gson.fromJson(json, MoveDeltaMessage.class);
+            Assertions.assertTrue(delta.applyTo(client));
+        }
+
+        Assertions.assertEquals(server, client);
+        Assertions.assertEquals(server.getPly(), client.getPly());
+        Assertions.assertEquals(ChessPiece.PieceType.PAWN, client.getBoard().getPiece(new ChessPosition(5, 4)).getPieceType());
+        Assertions.assertTrue(client.validMoves(new ChessPosition(8, 4)).size() > 0, "Moves should be generated on the updated board");
+    }
+
+    @Test
+    public void outOfOrderDeltaIsRejected() throws Exception {
+        ChessGame server = new ChessGame();
+        ChessGame client = new ChessGame();
+        ChessMove first = new ChessMove(new ChessPosition(2, 1), new ChessPosition(3, 1), null);
+        ChessMove second = new ChessMove(new ChessPosition(7, 1), new ChessPosition(6, 1), null);
+        server.makeMove(first);
+        server.makeMove(second);
+
+        Assertions.assertFalse(MoveDeltaMessage.of(server, second).applyTo(client));
+        Assertions.assertEquals(new ChessGame(), client, "A rejected delta must leave the game untouched");
+    }
+}